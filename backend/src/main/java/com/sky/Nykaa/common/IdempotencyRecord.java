@@ -0,0 +1,40 @@
+// src/main/java/com/sky/Nykaa/common/IdempotencyRecord.java
+package com.sky.Nykaa.common;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// A completed response to a request sent with an Idempotency-Key; see IdempotencyStore.
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    // SHA-256 of endpoint, user and key, so neither the email nor the client's key is stored in clear.
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // SHA-256 of the request body; a key reused with a different body is rejected.
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    private String location;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,290 @@
+// src/main/java/com/sky/Nykaa/common/IdempotencyStore.java
+package com.sky.Nykaa.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.exception.BadRequestException;
+import com.sky.Nykaa.common.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Honors the Idempotency-Key header on non-idempotent endpoints. The first request with a key runs;
+ * its successful (2xx) response is kept for TTL_MS and replayed, with Idempotent-Replayed: true, to
+ * every retry with the same key, user and endpoint. A duplicate that arrives while the first is still
+ * running waits for its outcome instead of running again. Errors are not kept, so a failed request can
+ * be retried with the same key.
+ *
+ * Completed responses live in a bounded LRU map (MAX_ENTRIES) backed by the idempotency_keys table, which
+ * answers once an entry has been evicted or the application restarted. Like CartStore, in-flight
+ * tracking assumes a single application instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    static final long TTL_MS = TimeUnit.HOURS.toMillis(24);
+    static final int MAX_ENTRIES = 10_000;
+    static final int MAX_KEY_LENGTH = 255;
+    static final long WAIT_SECONDS = 30;
+    private static final long SWEEP_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired private IdempotencyRecordRepository recordRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the least recently replayed response is evicted first. Guarded by itself.
+    private final Map<String, IdempotencyRecord> completed = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idempotency-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        ResponseEntity<T> run() throws E;
+    }
+
+    /**
+     * Runs action once per key. A null key runs it unconditionally. scope names the endpoint and user
+     * (keys are only unique per client); request is the body, compared on replay.
+     */
+    public <T, E extends Exception> ResponseEntity<T> execute(String key, String scope, Object request,
+                                                              TypeReference<T> bodyType, Action<T, E> action) throws E {
+        return execute(key, scope, request, bodyType, false, action);
+    }
+
+    /**
+     * Like execute, but the response is recorded in the transaction the action runs in, so the key
+     * can never be lost after the action's own writes have committed (e.g. a placed order).
+     */
+    public <T, E extends Exception> ResponseEntity<T> executeInTransaction(String key, String scope, Object request,
+                                                                           TypeReference<T> bodyType, Action<T, E> action) throws E {
+        return execute(key, scope, request, bodyType, true, action);
+    }
+
+    private <T, E extends Exception> ResponseEntity<T> execute(String key, String scope, Object request, TypeReference<T> bodyType,
+                                                               boolean inTransaction, Action<T, E> action) throws E {
+        if (key == null || key.isBlank()) {
+            return action.run();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = sha256(scope + "\n" + key);
+        String fingerprint = sha256(toJson(request));
+
+        IdempotencyRecord done = findCompleted(id);
+        if (done != null) {
+            return replay(done, fingerprint, bodyType);
+        }
+
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return replay(awaitOther(running), fingerprint, bodyType);
+        }
+        try {
+            // It may have finished between the lookup above and claiming the key.
+            done = findCompleted(id);
+            if (done != null) {
+                mine.complete(done);
+                return replay(done, fingerprint, bodyType);
+            }
+            ResponseEntity<T> response = inTransaction
+                    ? runInTransaction(id, fingerprint, action)
+                    : record(id, fingerprint, action.run());
+            mine.complete(toRecord(id, fingerprint, response));
+            return response;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> ResponseEntity<T> runInTransaction(String id, String fingerprint, Action<T, E> action) throws E {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return record(id, fingerprint, action.run());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedFailure(e);
+                }
+            });
+        } catch (CheckedFailure e) {
+            throw (E) e.getCause();
+        }
+    }
+
+    // Saves a successful response: to the table (joining the action's transaction when there is one)
+    // and, once that has committed, to memory.
+    private <T> ResponseEntity<T> record(String id, String fingerprint, ResponseEntity<T> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        IdempotencyRecord record = toRecord(id, fingerprint, response);
+        recordRepository.save(record);
+        AfterCommit.run(() -> remember(record));
+        return response;
+    }
+
+    private void remember(IdempotencyRecord record) {
+        synchronized (completed) {
+            completed.put(record.getId(), record);
+        }
+    }
+
+    private IdempotencyRecord findCompleted(String id) {
+        IdempotencyRecord record;
+        synchronized (completed) {
+            record = completed.get(id);
+        }
+        if (record == null) {
+            record = recordRepository.findById(id).orElse(null);
+            if (record != null && !expired(record)) {
+                remember(record);
+            }
+        }
+        return record == null || expired(record) ? null : record;
+    }
+
+    private IdempotencyRecord awaitOther(CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // The same failure the original request got.
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ServiceUnavailableException("The original request failed. Please try again.");
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("A request with this " + HEADER + " is still being processed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the original request.");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String fingerprint, TypeReference<T> bodyType) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new BadRequestException(HEADER + " was already used for a different request");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.getStatusCode())
+                .header("Idempotent-Replayed", "true");
+        if (record.getLocation() != null) {
+            response.location(URI.create(record.getLocation()));
+        }
+        try {
+            return response.body(record.getBody() == null ? null : objectMapper.readValue(record.getBody(), bodyType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for " + HEADER + " is unreadable", e);
+        }
+    }
+
+    private IdempotencyRecord toRecord(String id, String fingerprint, ResponseEntity<?> response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setFingerprint(fingerprint);
+        record.setStatusCode(response.getStatusCode().value());
+        record.setBody(response.getBody() == null ? null : toJson(response.getBody()));
+        URI location = response.getHeaders().getLocation();
+        record.setLocation(location == null ? null : location.toString());
+        record.setCreatedAt(LocalDateTime.now());
+        return record;
+    }
+
+    private static boolean expired(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(cutoff());
+    }
+
+    private static LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(Duration.ofMillis(TTL_MS));
+    }
+
+    private void sweep() {
+        try {
+            LocalDateTime cutoff = cutoff();
+            synchronized (completed) {
+                completed.values().removeIf(record -> record.getCreatedAt().isBefore(cutoff));
+            }
+            recordRepository.deleteCreatedBefore(cutoff);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key sweep failed; will retry", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize for " + HEADER, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Carries a checked exception out of a TransactionTemplate callback (which rolls back on it).
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
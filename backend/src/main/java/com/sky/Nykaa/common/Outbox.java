@@ -0,0 +1,44 @@
+// src/main/java/com/sky/Nykaa/common/Outbox.java
+package com.sky.Nykaa.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records domain events in outbox_events as part of the current transaction, so an event exists
+ * exactly when the change it describes was committed. OutboxDispatcher delivers them afterwards,
+ * off the request thread.
+ */
+@Component
+public class Outbox {
+
+    @Autowired private OutboxEventRepository eventRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    /**
+     * Writes an event of the given type with payload serialized as JSON. Must be called inside the
+     * transaction that makes the change.
+     */
+    public void publish(String type, Long aggregateId, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox event " + type + " must be published inside a transaction");
+        }
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event " + type, e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        eventRepository.save(event);
+    }
+}
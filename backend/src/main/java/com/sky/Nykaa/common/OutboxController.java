@@ -0,0 +1,26 @@
+// src/main/java/com/sky/Nykaa/common/OutboxController.java
+package com.sky.Nykaa.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/outbox")
+public class OutboxController {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    /**
+     * Outbox backlog and delivery lag. (Admin only)
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OutboxStats> getStats() {
+        return ResponseEntity.ok(outboxDispatcher.stats());
+    }
+}
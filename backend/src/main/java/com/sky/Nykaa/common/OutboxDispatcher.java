@@ -0,0 +1,193 @@
+// src/main/java/com/sky/Nykaa/common/OutboxDispatcher.java
+package com.sky.Nykaa.common;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to the OutboxSubscriber beans. Every POLL_INTERVAL_MS one thread claims
+ * up to BATCH_SIZE due events in id order with FOR UPDATE SKIP LOCKED (so several instances can
+ * share the table without handing out the same event twice), passes each to the subscribers of its
+ * type and, in the same transaction, marks it dispatched. An event whose subscriber throws is
+ * retried with exponential backoff, up to MAX_ATTEMPTS; retries can overtake later events.
+ * Dispatched events are deleted after RETENTION.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    static final int BATCH_SIZE = 100;
+    static final int MAX_ATTEMPTS = 10;
+    static final long POLL_INTERVAL_MS = 200;
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration RETENTION = Duration.ofDays(7);
+    private static final long SWEEP_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String CLAIM_SQL = "SELECT id, type, aggregate_id, payload, created_at, attempts FROM outbox_events " +
+            "WHERE dispatched_at IS NULL AND attempts < ? AND next_attempt_at <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DISPATCHED_SQL = "UPDATE outbox_events SET dispatched_at = ?, attempts = attempts + 1, " +
+            "last_error = NULL WHERE id = ?";
+
+    private static final String FAILED_SQL = "UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ?, " +
+            "last_error = ? WHERE id = ?";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private OutboxEventRepository eventRepository;
+    @Autowired(required = false) private List<OutboxSubscriber> subscribers = List.of();
+
+    private final Map<String, List<OutboxSubscriber>> subscribersByType = new HashMap<>();
+
+    // Within this instance batches run one at a time, so dispatchPending() returns only once
+    // everything due has been delivered, whichever thread claimed it.
+    private final Object dispatchLock = new Object();
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private volatile long lastLagMs;
+    private volatile long maxLagMs;
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        for (OutboxSubscriber subscriber : subscribers) {
+            for (String type : subscriber.eventTypes()) {
+                subscribersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(subscriber);
+            }
+        }
+        dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed, will retry", e);
+        }
+    }
+
+    /**
+     * Delivers every event that is due now, batch by batch, and returns how many were handled
+     * (successfully or not). Runs on the background thread; tests call it to skip the wait.
+     */
+    public int dispatchPending() {
+        synchronized (dispatchLock) {
+            int total = 0;
+            int claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> dispatchBatch());
+                total += claimed;
+            } while (claimed == BATCH_SIZE);
+            return total;
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            long aggregateId = rs.getLong("aggregate_id");
+            return new OutboxMessage(rs.getLong("id"), rs.getString("type"), rs.wasNull() ? null : aggregateId,
+                    rs.getString("payload"), rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("attempts") + 1);
+        }, MAX_ATTEMPTS, Timestamp.valueOf(now), BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> delivered = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        long batchLagMs = 0;
+        for (OutboxMessage message : batch) {
+            try {
+                for (OutboxSubscriber subscriber : subscribersByType.getOrDefault(message.getType(), List.of())) {
+                    subscriber.handle(message);
+                }
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed on attempt {}", message.getId(), message.getType(), message.getAttempt(), e);
+                failed.add(new Object[]{Timestamp.valueOf(LocalDateTime.now().plus(backoff(message.getAttempt()))),
+                        truncate(String.valueOf(e)), message.getId()});
+                continue;
+            }
+            LocalDateTime deliveredAt = LocalDateTime.now();
+            batchLagMs = Math.max(batchLagMs, Duration.between(message.getCreatedAt(), deliveredAt).toMillis());
+            delivered.add(new Object[]{Timestamp.valueOf(deliveredAt), message.getId()});
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.batchUpdate(DISPATCHED_SQL, delivered);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(FAILED_SQL, failed);
+        }
+
+        // Counted once the marks are committed, like the deliveries themselves.
+        long lag = batchLagMs;
+        AfterCommit.run(() -> {
+            dispatched.addAndGet(delivered.size());
+            failedAttempts.addAndGet(failed.size());
+            if (!delivered.isEmpty()) {
+                lastLagMs = lag;
+                maxLagMs = Math.max(maxLagMs, lag);
+            }
+        });
+        return batch.size();
+    }
+
+    // 1 s, 2 s, 4 s, ... capped at MAX_BACKOFF.
+    static Duration backoff(int attempt) {
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private void sweep() {
+        try {
+            int deleted = eventRepository.deleteDispatchedBefore(LocalDateTime.now().minus(RETENTION));
+            if (deleted > 0) {
+                log.info("Deleted {} dispatched outbox events", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox sweep failed", e);
+        }
+    }
+
+    public OutboxStats stats() {
+        LocalDateTime oldest = eventRepository.findOldestPendingCreatedAt(MAX_ATTEMPTS);
+        long oldestAgeMs = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+        return new OutboxStats(eventRepository.countPending(MAX_ATTEMPTS), eventRepository.countDead(MAX_ATTEMPTS),
+                oldestAgeMs, dispatched.get(), failedAttempts.get(), lastLagMs, maxLagMs);
+    }
+}
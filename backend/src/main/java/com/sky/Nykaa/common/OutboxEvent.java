@@ -0,0 +1,57 @@
+// src/main/java/com/sky/Nykaa/common/OutboxEvent.java
+package com.sky.Nykaa.common;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// A domain event written by Outbox in the transaction it describes and delivered by OutboxDispatcher.
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_dispatched_at_id", columnList = "dispatched_at, id"),
+        @Index(name = "idx_outbox_events_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    // The order, product, ... the event is about, when there is a single one.
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not picked up again before this; pushed back after each failed delivery.
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set once every subscriber has handled the event.
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
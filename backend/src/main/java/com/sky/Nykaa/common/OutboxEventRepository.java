@@ -0,0 +1,35 @@
+package com.sky.Nykaa.common;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    // Events that used up their attempts and are no longer retried.
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.dispatchedAt IS NULL AND e.attempts >= :maxAttempts")
+    long countDead(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    // Settles every undelivered event of a type at once, for a consumer that has caught up by other means.
+    // Events a dispatcher has claimed are waited for, so they are either delivered or settled here, not both.
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.dispatchedAt = :now WHERE e.type = :type AND e.dispatchedAt IS NULL")
+    int markDispatched(@Param("type") String type, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.dispatchedAt < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
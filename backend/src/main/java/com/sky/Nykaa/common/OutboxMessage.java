@@ -0,0 +1,18 @@
+package com.sky.Nykaa.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// An outbox event as handed to OutboxSubscriber.handle. payload is the JSON written by Outbox.publish.
+@Getter
+@AllArgsConstructor
+public class OutboxMessage {
+    private Long id;
+    private String type;
+    private Long aggregateId;
+    private String payload;
+    private LocalDateTime createdAt;
+    private int attempt;
+}
@@ -0,0 +1,19 @@
+package com.sky.Nykaa.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Backlog and delivery lag of the outbox. The counters and lags cover this instance since it started.
+@Data
+@AllArgsConstructor
+public class OutboxStats {
+    private long pending;
+    private long dead;
+    // Age of the oldest event still waiting, 0 when none is.
+    private long oldestPendingAgeMs;
+    private long dispatched;
+    private long failedAttempts;
+    // Largest time from commit to delivery in the most recent batch, and overall.
+    private long lastLagMs;
+    private long maxLagMs;
+}
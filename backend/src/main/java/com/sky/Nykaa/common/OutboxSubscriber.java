@@ -0,0 +1,17 @@
+package com.sky.Nykaa.common;
+
+import java.util.Set;
+
+/**
+ * An in-process consumer of outbox events. Every Spring bean implementing this is registered with
+ * OutboxDispatcher. Delivery is at least once: an event is handed out again when any subscriber of
+ * it throws, or when the application stops before the delivery was recorded, so handlers must
+ * tolerate seeing an event twice. Handlers run on the dispatcher thread inside its transaction; work
+ * that must not roll back with it (or must not abort it) belongs in a transaction of its own.
+ */
+public interface OutboxSubscriber {
+
+    Set<String> eventTypes();
+
+    void handle(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,13 @@
+package com.sky.Nykaa.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Custom exception for malformed client input (bad cursors, unknown sort keys, ...).
+// The @ResponseStatus annotation tells Spring to return a 400 BAD REQUEST status.
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
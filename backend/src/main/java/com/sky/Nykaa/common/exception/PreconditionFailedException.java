@@ -0,0 +1,13 @@
+package com.sky.Nykaa.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Custom exception for a conditional write (If-Match) against a resource that has since changed.
+// The @ResponseStatus annotation tells Spring to return a 412 PRECONDITION FAILED status.
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
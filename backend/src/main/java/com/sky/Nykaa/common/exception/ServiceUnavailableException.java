@@ -0,0 +1,13 @@
+package com.sky.Nykaa.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Custom exception for features that are temporarily unable to serve (e.g. an index still warming up).
+// The @ResponseStatus annotation tells Spring to return a 503 SERVICE UNAVAILABLE status.
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
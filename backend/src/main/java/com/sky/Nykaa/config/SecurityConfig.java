@@ -73,8 +73,10 @@ public class SecurityConfig {
         // It specifically allows your frontend to make requests.
         configuration.setAllowedOrigins(Arrays.asList("https://nykaa-frontend.onrender.com")); 
         
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // ETag: cart versions for If-Match / If-None-Match. Location: status URL of an order accepted with 202.
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Location", "Preference-Applied", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true); // Allowing credentials is often needed for authentication.
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
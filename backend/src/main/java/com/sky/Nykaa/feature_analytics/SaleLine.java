@@ -0,0 +1,24 @@
+package com.sky.Nykaa.feature_analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One order line as the sales rollups see it: the order it belongs to, what was sold and for how much.
+// Built from entities when an order is placed, or by constructor expressions and JDBC when read back;
+// travels as JSON in SALES_RECORDED outbox events.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleLine {
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private Long productId;
+    private Long brandId;
+    private Long categoryId;
+    private int quantity;
+    private BigDecimal price;
+}
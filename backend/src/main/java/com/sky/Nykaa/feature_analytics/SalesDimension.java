@@ -0,0 +1,39 @@
+// src/main/java/com/sky/Nykaa/feature_analytics/SalesDimension.java
+package com.sky.Nykaa.feature_analytics;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * What a sales_rollups row is totalled by, next to its day. ALL rows carry dimension_id 0;
+ * the others name the table their dimension_id points into.
+ */
+public enum SalesDimension {
+    ALL(null),
+    PRODUCT("products"),
+    BRAND("brands"),
+    CATEGORY("categories");
+
+    private final String table;
+
+    SalesDimension(String table) {
+        this.table = table;
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    public static SalesDimension fromParam(String param) {
+        try {
+            SalesDimension dimension = SalesDimension.valueOf(param.trim().toUpperCase(Locale.ROOT));
+            if (dimension == ALL) {
+                throw new IllegalArgumentException();
+            }
+            return dimension;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Unsupported dimension: " + param + " (use product, brand or category)");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+// src/main/java/com/sky/Nykaa/feature_analytics/SalesReportController.java
+package com.sky.Nykaa.feature_analytics;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+import com.sky.Nykaa.feature_analytics.dto.DailySalesDto;
+import com.sky.Nykaa.feature_analytics.dto.RollupRebuildResult;
+import com.sky.Nykaa.feature_analytics.dto.TopSellerDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales reports answered from sales_rollups, never from orders. (Admin only)
+ * Revenue is the sum of line price x quantity; cancelled orders are not counted.
+ */
+@RestController
+@RequestMapping("/api/analytics/sales")
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesReportController {
+
+    static final int DEFAULT_DAYS = 30;
+    static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SalesRollupRepository rollupRepository;
+
+    @Autowired
+    private SalesRollups salesRollups;
+
+    /**
+     * Catalog-wide units, revenue and orders per day. from and to are inclusive ISO dates
+     * and default to the last 30 days.
+     * Example URL: /api/analytics/sales?from=2025-01-01&to=2025-01-31
+     */
+    @GetMapping
+    public ResponseEntity<List<DailySalesDto>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+        return ResponseEntity.ok(rollupRepository.findDaily(start, end));
+    }
+
+    /**
+     * Best-selling products, brands or categories over the same kind of date range, by revenue (default) or units.
+     * Example URL: /api/analytics/sales/top?dimension=brand&from=2025-01-01&to=2025-01-31&sort=units&limit=10
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<TopSellerDto>> getTopSellers(
+            @RequestParam String dimension,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "revenue") String sort,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!sort.equals("revenue") && !sort.equals("units")) {
+            throw new BadRequestException("Unsupported sort: " + sort + " (use revenue or units)");
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAYS - 1) : from;
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(rollupRepository.findTop(SalesDimension.fromParam(dimension), start, end,
+                sort.equals("units"), pageSize));
+    }
+
+    /**
+     * Recomputes every rollup from orders and order items, in parallel chunks. Use after a restore,
+     * a manual data fix, or to correct drift.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupRebuildResult> rebuild() {
+        return ResponseEntity.ok(salesRollups.rebuild());
+    }
+}
@@ -0,0 +1,54 @@
+// src/main/java/com/sky/Nykaa/feature_analytics/SalesRollup.java
+package com.sky.Nykaa.feature_analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Units, revenue and order count of one day, in total (ALL) or for one product, brand or category.
+// Written only through SalesRollupRepository; mapped here so the schema is created like every other table.
+@Entity
+@Table(name = "sales_rollups", indexes = @Index(name = "idx_sales_rollups_dimension_day", columnList = "dimension, sales_day"))
+@IdClass(SalesRollup.Key.class)
+@Getter
+@Setter
+public class SalesRollup {
+
+    @Id
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate day;
+
+    @Id
+    @Column(nullable = false, length = 16)
+    private String dimension;
+
+    @Id
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(nullable = false)
+    private long units;
+
+    // Sum of line price x quantity; GST and shipping in orders.total_amount are not included.
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String dimension;
+        private Long dimensionId;
+    }
+}
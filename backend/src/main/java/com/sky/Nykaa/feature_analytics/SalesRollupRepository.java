@@ -0,0 +1,134 @@
+// src/main/java/com/sky/Nykaa/feature_analytics/SalesRollupRepository.java
+package com.sky.Nykaa.feature_analytics;
+
+import com.sky.Nykaa.feature_analytics.dto.DailySalesDto;
+import com.sky.Nykaa.feature_analytics.dto.TopSellerDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to sales_rollups. Deltas are applied as increments, so a write never needs
+ * to read the row first; reports sum a handful of rows per day instead of scanning orders.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    private static final String INCREMENT_SQL = "UPDATE sales_rollups SET units = units + ?, revenue = revenue + ?, " +
+            "order_count = order_count + ? WHERE sales_day = ? AND dimension = ? AND dimension_id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO sales_rollups (sales_day, dimension, dimension_id, units, revenue, order_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Lines of orders that count as sales within an id range; used by the rebuild.
+    private static final String LINES_SQL = "SELECT o.id, o.order_date, i.product_id, p.brand_id, p.category_id, i.quantity, i.price " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id " +
+            "WHERE o.id BETWEEN ? AND ? AND o.status <> 'CANCELLED'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the deltas to their rows, creating rows that do not exist yet. The caller must be in a
+     * transaction. Should two transactions create the same row at once, one fails on the primary key
+     * and its dispatch batch is retried.
+     */
+    void apply(Map<SalesRollup.Key, SalesTotals> deltas) {
+        List<SalesRollup.Key> keys = new ArrayList<>(deltas.keySet());
+        List<Object[]> increments = new ArrayList<>(keys.size());
+        for (SalesRollup.Key key : keys) {
+            SalesTotals delta = deltas.get(key);
+            increments.add(new Object[]{delta.units, delta.revenue, delta.orders,
+                    Date.valueOf(key.getDay()), key.getDimension(), key.getDimensionId()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INCREMENT_SQL, increments);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (counts[i] == 0) {
+                SalesRollup.Key key = keys.get(i);
+                inserts.add(insertArgs(key, deltas.get(key)));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    /**
+     * Replaces the whole table with rows. The caller must be in a transaction, so reports keep
+     * seeing the old totals until the new ones are complete.
+     */
+    void replaceAll(Map<SalesRollup.Key, SalesTotals> rows) {
+        jdbcTemplate.update("DELETE FROM sales_rollups");
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<SalesRollup.Key, SalesTotals> row : rows.entrySet()) {
+            batch.add(insertArgs(row.getKey(), row.getValue()));
+            if (batch.size() == 1_000) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    private static Object[] insertArgs(SalesRollup.Key key, SalesTotals totals) {
+        return new Object[]{Date.valueOf(key.getDay()), key.getDimension(), key.getDimensionId(),
+                totals.units, totals.revenue, totals.orders};
+    }
+
+    /**
+     * Lowest and highest order id, or null when there are no orders.
+     */
+    public long[] orderIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM orders", rs -> {
+            rs.next();
+            long max = rs.getLong(2);
+            return rs.wasNull() ? null : new long[]{rs.getLong(1), max};
+        });
+    }
+
+    /**
+     * Lines of the orders with firstId <= id <= lastId that count as sales.
+     */
+    public List<SaleLine> findSaleLines(long firstId, long lastId) {
+        return jdbcTemplate.query(LINES_SQL, (rs, rowNum) -> new SaleLine(rs.getLong("id"),
+                rs.getTimestamp("order_date").toLocalDateTime(), rs.getLong("product_id"), rs.getLong("brand_id"),
+                rs.getLong("category_id"), rs.getInt("quantity"), rs.getBigDecimal("price")), firstId, lastId);
+    }
+
+    /**
+     * Catalog-wide sales per day, from (inclusive) to (inclusive), oldest first.
+     */
+    public List<DailySalesDto> findDaily(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT sales_day, units, revenue, order_count FROM sales_rollups " +
+                        "WHERE dimension = ? AND dimension_id = 0 AND sales_day BETWEEN ? AND ? ORDER BY sales_day",
+                (rs, rowNum) -> new DailySalesDto(rs.getDate("sales_day").toLocalDate(), rs.getLong("units"),
+                        rs.getBigDecimal("revenue"), rs.getLong("order_count")),
+                SalesDimension.ALL.name(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * The limit best-selling members of dimension between from and to (both inclusive), by revenue
+     * or by units, with their current names.
+     */
+    public List<TopSellerDto> findTop(SalesDimension dimension, LocalDate from, LocalDate to, boolean byUnits, int limit) {
+        // The table name comes from the enum and the sort column from a boolean, never from the request.
+        String sql = "SELECT t.dimension_id, n.name, t.units, t.revenue, t.orders FROM (" +
+                "SELECT dimension_id, SUM(units) AS units, SUM(revenue) AS revenue, SUM(order_count) AS orders " +
+                "FROM sales_rollups WHERE dimension = ? AND sales_day BETWEEN ? AND ? GROUP BY dimension_id) t " +
+                "LEFT JOIN " + dimension.getTable() + " n ON n.id = t.dimension_id " +
+                "ORDER BY " + (byUnits ? "t.units" : "t.revenue") + " DESC, t.dimension_id LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TopSellerDto(rs.getLong("dimension_id"), rs.getString("name"),
+                        rs.getLong("units"), rs.getBigDecimal("revenue"), rs.getLong("orders")),
+                dimension.name(), Date.valueOf(from), Date.valueOf(to), limit);
+    }
+}
@@ -0,0 +1,226 @@
+// src/main/java/com/sky/Nykaa/feature_analytics/SalesRollups.java
+package com.sky.Nykaa.feature_analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.AfterCommit;
+import com.sky.Nykaa.common.Outbox;
+import com.sky.Nykaa.common.OutboxEventRepository;
+import com.sky.Nykaa.common.OutboxMessage;
+import com.sky.Nykaa.common.OutboxSubscriber;
+import com.sky.Nykaa.feature_analytics.dto.RollupRebuildResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps sales_rollups in step with orders. OrderService reports each order as it is placed and
+ * again when a status change moves it in or out of the sales (cancellation); each report is a
+ * SALES_RECORDED outbox event written with the order change. The dispatcher delivers them in
+ * batches, and each batch's reports are merged and applied in the dispatch transaction itself, so
+ * a report is marked delivered exactly when its increments are committed. rebuild() recomputes
+ * everything from orders and order_items, reading id ranges in parallel.
+ */
+@Component
+public class SalesRollups implements OutboxSubscriber {
+
+    public static final String SALES_RECORDED = "SALES_RECORDED";
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollups.class);
+
+    static final int REBUILD_CHUNK_SIZE = 5_000;
+    static final int REBUILD_THREADS = 4;
+
+    @Autowired private SalesRollupRepository rollupRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private Outbox outbox;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    // Read-held by every transaction that reports sales until it completes; write-held by a rebuild,
+    // so its scan never runs while a report is in flight in this instance.
+    private final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();
+
+    /**
+     * Counts the orders the lines belong to into the rollups (sign 1), or takes them out again
+     * (sign -1), if the caller's transaction commits. Must be called inside that transaction.
+     * Waits while a rebuild is running.
+     */
+    public void record(List<SaleLine> lines, int sign) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        AfterCommit.onCompletion(committed -> recordLock.readLock().unlock());
+        recordLock.readLock().lock();
+        outbox.publish(SALES_RECORDED, null, new Delta(lines, sign));
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(SALES_RECORDED);
+    }
+
+    // Merged into the dispatch batch's deltas, which are written just before that transaction commits.
+    @Override
+    public void handle(OutboxMessage message) throws Exception {
+        Delta delta = objectMapper.readValue(message.getPayload(), Delta.class);
+        accumulate(batchDeltas(), delta.lines, delta.sign);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<SalesRollup.Key, SalesTotals> batchDeltas() {
+        Map<SalesRollup.Key, SalesTotals> deltas = (Map<SalesRollup.Key, SalesTotals>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            Map<SalesRollup.Key, SalesTotals> batch = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!batch.isEmpty()) {
+                        rollupRepository.apply(batch);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(SalesRollups.this);
+                }
+            });
+            deltas = batch;
+        }
+        return deltas;
+    }
+
+    /**
+     * Adds what the lines contribute to each day, product, brand and category. An order counts
+     * once per key it touches, however many of its lines fall under that key.
+     */
+    static void accumulate(Map<SalesRollup.Key, SalesTotals> into, List<SaleLine> lines, int sign) {
+        Map<Long, List<SaleLine>> byOrder = new LinkedHashMap<>();
+        for (SaleLine line : lines) {
+            byOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(line);
+        }
+        for (List<SaleLine> orderLines : byOrder.values()) {
+            Map<SalesRollup.Key, SalesTotals> order = new HashMap<>();
+            for (SaleLine line : orderLines) {
+                BigDecimal amount = line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+                for (SalesRollup.Key key : keys(line)) {
+                    SalesTotals totals = order.computeIfAbsent(key, k -> new SalesTotals());
+                    totals.units += (long) sign * line.getQuantity();
+                    totals.revenue = sign > 0 ? totals.revenue.add(amount) : totals.revenue.subtract(amount);
+                    totals.orders = sign;
+                }
+            }
+            order.forEach((key, totals) -> into.computeIfAbsent(key, k -> new SalesTotals()).add(totals));
+        }
+    }
+
+    private static List<SalesRollup.Key> keys(SaleLine line) {
+        LocalDate day = line.getOrderDate().toLocalDate();
+        return List.of(
+                new SalesRollup.Key(day, SalesDimension.ALL.name(), 0L),
+                new SalesRollup.Key(day, SalesDimension.PRODUCT.name(), line.getProductId()),
+                new SalesRollup.Key(day, SalesDimension.BRAND.name(), line.getBrandId()),
+                new SalesRollup.Key(day, SalesDimension.CATEGORY.name(), line.getCategoryId()));
+    }
+
+    /**
+     * Recomputes sales_rollups from orders and order_items: the order id range is split into chunks
+     * of REBUILD_CHUNK_SIZE that REBUILD_THREADS workers aggregate in parallel, and the merged result
+     * replaces the table in one transaction. New sales reports wait until it is done: every report
+     * committed before the scan is reflected by it and settled without being applied, every later
+     * one is applied on top of the new table.
+     */
+    public RollupRebuildResult rebuild() {
+        long start = System.nanoTime();
+        recordLock.writeLock().lock();
+        ExecutorService workers = Executors.newFixedThreadPool(REBUILD_THREADS, r -> {
+            Thread thread = new Thread(r, "sales-rollups-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long[] range = rollupRepository.orderIdRange();
+            Map<SalesRollup.Key, SalesTotals> rows = new HashMap<>();
+            long orders = 0;
+            if (range != null) {
+                List<Future<ChunkResult>> chunks = new ArrayList<>();
+                for (long first = range[0]; first <= range[1]; first += REBUILD_CHUNK_SIZE) {
+                    long chunkFirst = first;
+                    long chunkLast = Math.min(first + REBUILD_CHUNK_SIZE - 1, range[1]);
+                    chunks.add(workers.submit(() -> aggregate(chunkFirst, chunkLast)));
+                }
+                for (Future<ChunkResult> chunk : chunks) {
+                    ChunkResult result = chunk.get();
+                    orders += result.orders;
+                    result.rows.forEach((key, totals) -> rows.computeIfAbsent(key, k -> new SalesTotals()).add(totals));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // Before touching the table: a dispatch that already claimed some of these applies them and
+                // commits first, and none can claim them once this holds their rows.
+                outboxEventRepository.markDispatched(SALES_RECORDED, LocalDateTime.now());
+                rollupRepository.replaceAll(rows);
+            });
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Sales rollups rebuilt from {} orders into {} rows in {} ms", orders, rows.size(), elapsedMs);
+            return new RollupRebuildResult(orders, rows.size(), elapsedMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sales rollup rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sales rollup rebuild failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    private ChunkResult aggregate(long firstId, long lastId) {
+        List<SaleLine> lines = rollupRepository.findSaleLines(firstId, lastId);
+        Map<SalesRollup.Key, SalesTotals> rows = new HashMap<>();
+        accumulate(rows, lines, 1);
+        long orders = lines.stream().map(SaleLine::getOrderId).distinct().count();
+        return new ChunkResult(rows, orders);
+    }
+
+    // Payload of SALES_RECORDED.
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Delta {
+        private List<SaleLine> lines;
+        private int sign;
+    }
+
+    private static final class ChunkResult {
+        private final Map<SalesRollup.Key, SalesTotals> rows;
+        private final long orders;
+
+        private ChunkResult(Map<SalesRollup.Key, SalesTotals> rows, long orders) {
+            this.rows = rows;
+            this.orders = orders;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.sky.Nykaa.feature_analytics;
+
+import java.math.BigDecimal;
+
+// Running units, revenue and order count for one sales_rollups key; a delta or a full row.
+class SalesTotals {
+    long units;
+    BigDecimal revenue = BigDecimal.ZERO;
+    long orders;
+
+    void add(SalesTotals other) {
+        units += other.units;
+        revenue = revenue.add(other.revenue);
+        orders += other.orders;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sky.Nykaa.feature_analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Sales of one day across the whole catalog. Days without sales are left out.
+@Data
+@AllArgsConstructor
+public class DailySalesDto {
+    private LocalDate day;
+    private long units;
+    private BigDecimal revenue;
+    private long orders;
+}
@@ -0,0 +1,13 @@
+package com.sky.Nykaa.feature_analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Outcome of recomputing sales_rollups from orders.
+@Data
+@AllArgsConstructor
+public class RollupRebuildResult {
+    private long orders;
+    private int rows;
+    private long elapsedMs;
+}
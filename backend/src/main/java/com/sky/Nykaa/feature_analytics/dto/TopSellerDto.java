@@ -0,0 +1,18 @@
+package com.sky.Nykaa.feature_analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Sales of one product, brand or category over the requested days.
+@Data
+@AllArgsConstructor
+public class TopSellerDto {
+    private Long id;
+    // null when the product, brand or category has since been deleted
+    private String name;
+    private long units;
+    private BigDecimal revenue;
+    private long orders;
+}
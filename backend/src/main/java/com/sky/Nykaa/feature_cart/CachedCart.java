@@ -0,0 +1,100 @@
+// src/main/java/com/sky/Nykaa/feature_cart/CachedCart.java
+package com.sky.Nykaa.feature_cart;
+
+import com.sky.Nykaa.feature_product.dto.ProductDto;
+import com.sky.Nykaa.feature_user.dto.UserDto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of one user's cart held by CartStore. Lines are keyed by product id.
+ * Not thread-safe on its own: CartStore only hands it out while holding its monitor.
+ */
+class CachedCart {
+
+    final Long cartId;
+    final UserDto user;
+    private final Map<Long, Line> lines = new LinkedHashMap<>();
+
+    long version;
+
+    // What cart_items holds for this cart as of the last successful flush: product id -> {line id, quantity}.
+    // Flushes write only the difference between this and the current lines.
+    Map<Long, long[]> stored = new HashMap<>();
+
+    // CatalogVersion the line product details were loaded at; stale details are reloaded on access.
+    long productsVersion = -1;
+    volatile long lastAccess;
+    boolean dirty;
+    boolean evicted;
+
+    CachedCart(Long cartId, UserDto user) {
+        this.cartId = cartId;
+        this.user = user;
+    }
+
+    /**
+     * Moves the version past every value handed out so far. Like CatalogVersion it follows the
+     * clock, so a version seen before a crash is not reused for different contents afterwards.
+     */
+    void touch() {
+        version = Math.max(version + 1, System.currentTimeMillis());
+    }
+
+    Collection<Line> lines() {
+        return lines.values();
+    }
+
+    Line lineForProduct(Long productId) {
+        return lines.get(productId);
+    }
+
+    Line lineById(Long lineId) {
+        for (Line line : lines.values()) {
+            if (line.id == lineId) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    void put(Line line) {
+        lines.put(line.productId, line);
+    }
+
+    boolean remove(Line line) {
+        return lines.remove(line.productId) != null;
+    }
+
+    void clear() {
+        lines.clear();
+    }
+
+    // Swaps in a whole set of lines, e.g. the result of a batch applied to a copy.
+    void replaceLines(Collection<Line> newLines) {
+        lines.clear();
+        newLines.forEach(this::put);
+    }
+
+    static class Line {
+        // Same value as the cart_items row id, so ids in API responses survive flushes and restarts.
+        final long id;
+        final Long productId;
+        int quantity;
+        ProductDto product;
+
+        Line(long id, Long productId, int quantity, ProductDto product) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.product = product;
+        }
+
+        Line copy() {
+            return new Line(id, productId, quantity, product);
+        }
+    }
+}
@@ -22,12 +22,18 @@ public class Cart {
     private Long id;
 
     // A cart belongs to one user
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    // A cart can have many items
-    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // NEW: Bumped on every change to the cart's lines; clients send it back in If-Match.
+    // Clock-based (see CachedCart.touch), so values lost in a crash are never handed out again.
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // A cart can have many items. LAZY: the cart read path uses CartRepository.findCartRows instead.
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference
     private Set<CartItem> cartItems = new HashSet<>();
 }
\ No newline at end of file
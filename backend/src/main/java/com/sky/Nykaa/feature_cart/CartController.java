@@ -2,10 +2,12 @@
 package com.sky.Nykaa.feature_cart;
 
 import com.sky.Nykaa.feature_cart.dto.AddItemRequest;
-import com.sky.Nykaa.feature_cart.dto.CartDto;
+import com.sky.Nykaa.feature_cart.dto.CartPatchRequest;
 import com.sky.Nykaa.feature_cart.dto.UpdateQuantityRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,25 +23,31 @@ public class CartController {
     /**
      * Handles GET requests to fetch the current user's shopping cart.
      * @param userDetails The authenticated user, injected by Spring Security.
-     * @return A ResponseEntity containing the user's cart data as a CartDto.
+     * @param ifNoneMatch Optional ETag (cart version) the client already holds.
+     * @return A ResponseEntity containing the user's cart data as a CartDto, or 304 if the version is unchanged.
      */
     @GetMapping
-    public ResponseEntity<CartDto> getCart(@AuthenticationPrincipal UserDetails userDetails) {
-        CartDto cartDto = cartService.getCartDtoForUser(userDetails.getUsername());
-        return ResponseEntity.ok(cartDto);
+    public ResponseEntity<?> getCart(@AuthenticationPrincipal UserDetails userDetails,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CartService.Result result = cartService.getCart(userDetails.getUsername(), parseVersion(ifNoneMatch));
+        if (result.getBody() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(result)).build();
+        }
+        return respond(result);
     }
 
     /**
      * Handles POST requests to add a new item to the user's shopping cart.
      * @param request The request body containing the productId and quantity.
      * @param userDetails The authenticated user.
-     * @return A ResponseEntity containing the updated cart data as a CartDto.
+     * @param ifMatch Optional cart version; when sent the cart must still be at it (else 412).
+     * @return A ResponseEntity containing the updated cart data as a CartDto, or a CartDeltaDto when If-Match was sent.
      */
     @PostMapping("/items")
-    public ResponseEntity<CartDto> addItemToCart(@Valid @RequestBody AddItemRequest request,
-                                                 @AuthenticationPrincipal UserDetails userDetails) {
-        CartDto updatedCartDto = cartService.addItemToCartAndMapToDto(userDetails.getUsername(), request);
-        return ResponseEntity.ok(updatedCartDto);
+    public ResponseEntity<?> addItemToCart(@Valid @RequestBody AddItemRequest request,
+                                           @AuthenticationPrincipal UserDetails userDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respond(cartService.addItemToCart(userDetails.getUsername(), request, parseVersion(ifMatch)));
     }
 
     /**
@@ -47,28 +55,71 @@ public class CartController {
      * @param cartItemId The ID of the cart item to update.
      * @param request The request body containing the new quantity.
      * @param userDetails The authenticated user.
-     * @return A ResponseEntity containing the updated cart data as a CartDto.
+     * @param ifMatch Optional cart version; when sent the cart must still be at it (else 412).
+     * @return A ResponseEntity containing the updated cart data as a CartDto, or a CartDeltaDto when If-Match was sent.
      */
     @PutMapping("/items/{cartItemId}")
-    public ResponseEntity<CartDto> updateCartItem(
+    public ResponseEntity<?> updateCartItem(
             @PathVariable Long cartItemId,
             @Valid @RequestBody UpdateQuantityRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CartDto updatedCart = cartService.updateItemQuantityAndMapToDto(userDetails.getUsername(), cartItemId, request.getQuantity());
-        return ResponseEntity.ok(updatedCart);
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respond(cartService.updateItemQuantity(userDetails.getUsername(), cartItemId, request.getQuantity(), parseVersion(ifMatch)));
     }
 
     /**
      * Handles DELETE requests to remove an item completely from the cart.
      * @param cartItemId The ID of the cart item to remove.
      * @param userDetails The authenticated user.
-     * @return A ResponseEntity containing the updated cart data as a CartDto.
+     * @param ifMatch Optional cart version; when sent the cart must still be at it (else 412).
+     * @return A ResponseEntity containing the updated cart data as a CartDto, or a CartDeltaDto when If-Match was sent.
      */
     @DeleteMapping("/items/{cartItemId}")
-    public ResponseEntity<CartDto> removeCartItem(
+    public ResponseEntity<?> removeCartItem(
             @PathVariable Long cartItemId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CartDto updatedCart = cartService.removeItemFromCartAndMapToDto(userDetails.getUsername(), cartItemId);
-        return ResponseEntity.ok(updatedCart);
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respond(cartService.removeItemFromCart(userDetails.getUsername(), cartItemId, parseVersion(ifMatch)));
+    }
+
+    /**
+     * NEW: Handles PATCH requests carrying a batch of add/update/remove operations.
+     * The operations are applied in order and all or nothing; the resulting cart is returned once.
+     * @param request The operations, e.g. {"operations":[{"op":"add","productId":7,"quantity":2},{"op":"remove","cartItemId":31}]}
+     * @param userDetails The authenticated user.
+     * @param ifMatch Optional cart version; when sent the cart must still be at it (else 412).
+     * @return A ResponseEntity containing the updated cart data as a CartDto, or a CartDeltaDto when If-Match was sent.
+     */
+    @PatchMapping
+    public ResponseEntity<?> patchCart(@Valid @RequestBody CartPatchRequest request,
+                                       @AuthenticationPrincipal UserDetails userDetails,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return respond(cartService.applyOperations(userDetails.getUsername(), request.getOperations(), parseVersion(ifMatch)));
+    }
+
+    private static ResponseEntity<?> respond(CartService.Result result) {
+        return ResponseEntity.ok().eTag(etag(result)).body(result.getBody());
+    }
+
+    private static String etag(CartService.Result result) {
+        return "\"" + result.getVersion() + "\"";
+    }
+
+    // Reads the cart version out of an If-Match / If-None-Match value such as "1718000000123".
+    // Absent or "*" means unconditional; anything unparseable can never match.
+    private static Long parseVersion(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
     }
 }
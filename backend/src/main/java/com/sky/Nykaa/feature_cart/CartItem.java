@@ -8,14 +8,23 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "cart_items")
+// One line per product per cart; CartStore relies on it and the flush addresses rows by (cart_id, product_id).
+// Older data may break it; CartStore merges such rows when it loads the cart, and the update adds the constraint
+// on the next start once no duplicates are left.
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(name = "uk_cart_items_cart_product",
+        columnNames = {"cart_id", "product_id"}))
 @Getter
 @Setter
 @EqualsAndHashCode(exclude = "cart")
 public class CartItem {
 
+    // The sequence behind the original identity column. CartStore allocates line ids from it in blocks,
+    // so ids it writes explicitly and ids assigned on any other insert path come from one counter.
+    public static final String ID_SEQUENCE = "cart_items_id_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 1)
     private Long id;
 
     // An item belongs to one cart
@@ -25,7 +34,7 @@ public class CartItem {
     private Cart cart;
 
     // An item refers to one product
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
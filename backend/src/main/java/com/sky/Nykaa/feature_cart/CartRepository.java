@@ -1,10 +1,24 @@
 package com.sky.Nykaa.feature_cart;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser_Id(Long userId);
+
+    /**
+     * Loads a user's cart, owner, lines, products, brands and categories in one statement.
+     * Returns no rows when the user has no cart yet.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_cart.CartRow(c.id, c.version, u.id, u.email, u.firstName, u.lastName, " +
+            "ci.id, ci.quantity, p.id, p.name, p.description, p.price, p.imageUrl, p.stockQuantity, cat.name, b.name) " +
+            "FROM Cart c JOIN c.user u LEFT JOIN c.cartItems ci LEFT JOIN ci.product p " +
+            "LEFT JOIN p.category cat LEFT JOIN p.brand b " +
+            "WHERE u.id = :userId ORDER BY ci.id")
+    List<CartRow> findCartRows(@Param("userId") Long userId);
 }
@@ -0,0 +1,29 @@
+package com.sky.Nykaa.feature_cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// One row of the cart hydration query: the cart and its owner, plus one line with its product,
+// brand and category. An empty cart yields a single row whose line fields are all null.
+@Getter
+@AllArgsConstructor
+public class CartRow {
+    private Long cartId;
+    private Long cartVersion;
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Long lineId;
+    private Integer quantity;
+    private Long productId;
+    private String productName;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    private Integer stockQuantity;
+    private String categoryName;
+    private String brandName;
+}
@@ -1,148 +1,234 @@
 // src/main/java/com/sky/Nykaa/feature_cart/CartService.java
 package com.sky.Nykaa.feature_cart;
 
+import com.sky.Nykaa.common.exception.BadRequestException;
+import com.sky.Nykaa.common.exception.PreconditionFailedException;
 import com.sky.Nykaa.common.exception.ResourceNotFoundException;
 import com.sky.Nykaa.feature_cart.dto.AddItemRequest;
+import com.sky.Nykaa.feature_cart.dto.CartDeltaDto;
 import com.sky.Nykaa.feature_cart.dto.CartDto;
 import com.sky.Nykaa.feature_cart.dto.CartItemDto;
-import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_cart.dto.CartPatchRequest;
 import com.sky.Nykaa.feature_product.ProductRepository;
 import com.sky.Nykaa.feature_product.dto.ProductDto;
-import com.sky.Nykaa.feature_user.User;
-import com.sky.Nykaa.feature_user.UserRepository;
-import com.sky.Nykaa.feature_user.dto.UserDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class CartService {
 
-    @Autowired private CartRepository cartRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private CartStore cartStore;
     @Autowired private ProductRepository productRepository;
 
-    public CartDto getCartDtoForUser(String userEmail) {
-        Cart cart = getOrCreateCartForUser(userEmail);
-        return mapCartToDto(cart);
-    }
+    // Carts are served from and written to CartStore; the database is updated behind it.
+    // Mutations take the version the client last saw (If-Match) or null for an unconditional write.
 
-    public CartDto addItemToCartAndMapToDto(String userEmail, AddItemRequest request) {
-        Cart updatedCart = addItemToCart(userEmail, request);
-        return mapCartToDto(updatedCart);
+    /**
+     * Returns the cart, or a Result without a body when the client already has this version.
+     */
+    public Result getCart(String userEmail, Long knownVersion) {
+        return cartStore.read(userEmail, cart -> knownVersion != null && knownVersion == cart.version
+                ? new Result(cart.version, null)
+                : new Result(cart.version, mapCartToDto(cart)));
     }
 
-    // NEW: Public method for updating quantity
-    public CartDto updateItemQuantityAndMapToDto(String userEmail, Long cartItemId, int newQuantity) {
-        Cart updatedCart = updateItemQuantity(userEmail, cartItemId, newQuantity);
-        return mapCartToDto(updatedCart);
+    /**
+     * Product id -> quantity for every line of the user's cart.
+     */
+    public Map<Long, Integer> getQuantities(String userEmail) {
+        return cartStore.read(userEmail, cart -> {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            cart.lines().forEach(line -> quantities.put(line.productId, line.quantity));
+            return quantities;
+        });
     }
 
-    // NEW: Public method for removing an item
-    public CartDto removeItemFromCartAndMapToDto(String userEmail, Long cartItemId) {
-        Cart updatedCart = removeItemFromCart(userEmail, cartItemId);
-        return mapCartToDto(updatedCart);
+    public Result addItemToCart(String userEmail, AddItemRequest request, Long expectedVersion) {
+        return mutate(userEmail, expectedVersion, cart -> {
+            CachedCart.Line existingItem = cart.lineForProduct(request.getProductId());
+            if (existingItem != null) {
+                existingItem.quantity += request.getQuantity();
+            } else {
+                ProductDto product = productRepository.findDtoById(request.getProductId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+                cart.put(new CachedCart.Line(cartStore.nextLineId(), product.getId(), request.getQuantity(), product));
+            }
+        });
     }
 
-    @Transactional
-    private Cart getOrCreateCartForUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        return cartRepository.findByUser_Id(user.getId())
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
-                });
+    /**
+     * NEW: Updates the quantity of a specific item in the user's cart.
+     */
+    public Result updateItemQuantity(String userEmail, Long cartItemId, int newQuantity, Long expectedVersion) {
+        return mutate(userEmail, expectedVersion, cart -> {
+            CachedCart.Line item = cart.lineById(cartItemId);
+            if (item == null) {
+                throw new ResourceNotFoundException("Cart item not found in user's cart");
+            }
+            item.quantity = newQuantity;
+        });
     }
 
-    @Transactional
-    private Cart addItemToCart(String userEmail, AddItemRequest request) {
-        Cart cart = getOrCreateCartForUser(userEmail);
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        CartItem existingItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(request.getProductId()))
-                .findFirst()
-                .orElse(null);
+    /**
+     * NEW: Removes an item completely from the user's cart.
+     */
+    public Result removeItemFromCart(String userEmail, Long cartItemId, Long expectedVersion) {
+        return mutate(userEmail, expectedVersion, cart -> {
+            CachedCart.Line item = cart.lineById(cartItemId);
+            if (item == null) {
+                throw new ResourceNotFoundException("Cart item not found in user's cart");
+            }
+            cart.remove(item);
+        });
+    }
 
-        if (existingItem != null) {
-            existingItem.setQuantity(existingItem.getQuantity() + request.getQuantity());
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(request.getQuantity());
-            cart.getCartItems().add(newItem);
+    /**
+     * NEW: Applies a batch of add/update/remove operations in order against one cart load.
+     * Operations run on a copy of the lines, so if any of them fails the cart is left untouched;
+     * otherwise the result is flushed once like any other cart change.
+     */
+    public Result applyOperations(String userEmail, List<CartPatchRequest.Operation> operations, Long expectedVersion) {
+        // Products the batch adds are looked up together, before the cart is locked.
+        Set<Long> addedProductIds = operations.stream()
+                .filter(o -> "add".equalsIgnoreCase(o.getOp()) && o.getProductId() != null)
+                .map(CartPatchRequest.Operation::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, ProductDto> products = new HashMap<>();
+        if (!addedProductIds.isEmpty()) {
+            productRepository.findDtosByIdIn(addedProductIds).forEach(p -> products.put(p.getId(), p));
         }
 
-        return cartRepository.save(cart);
+        return mutate(userEmail, expectedVersion, cart -> {
+            Map<Long, CachedCart.Line> working = new LinkedHashMap<>();
+            cart.lines().forEach(line -> working.put(line.productId, line.copy()));
+
+            for (int i = 0; i < operations.size(); i++) {
+                CartPatchRequest.Operation operation = operations.get(i);
+                String where = "operations[" + i + "]: ";
+                switch (operation.getOp().toLowerCase(Locale.ROOT)) {
+                    case "add" -> {
+                        int quantity = requirePositive(operation.getQuantity(), where);
+                        ProductDto product = products.get(operation.getProductId());
+                        if (product == null) {
+                            throw new ResourceNotFoundException(where + "Product not found");
+                        }
+                        CachedCart.Line line = working.get(product.getId());
+                        if (line != null) {
+                            line.quantity += quantity;
+                        } else {
+                            working.put(product.getId(), new CachedCart.Line(cartStore.nextLineId(), product.getId(), quantity, product));
+                        }
+                    }
+                    case "update" -> findLine(working, operation, where).quantity = requirePositive(operation.getQuantity(), where);
+                    case "remove" -> working.remove(findLine(working, operation, where).productId);
+                    default -> throw new BadRequestException(where + "Unknown op: " + operation.getOp());
+                }
+            }
+
+            cart.replaceLines(working.values());
+        });
     }
 
     /**
-     * NEW: Updates the quantity of a specific item in the user's cart.
+     * Runs a mutation under the cart lock. With an expected version the cart must still be at that
+     * version (else 412) and the reply is a delta against it; without one the full cart is returned.
      */
-    @Transactional
-    private Cart updateItemQuantity(String userEmail, Long cartItemId, int newQuantity) {
-        Cart cart = getOrCreateCartForUser(userEmail);
-        CartItem item = cart.getCartItems().stream()
-                .filter(ci -> ci.getId().equals(cartItemId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found in user's cart"));
-
-        item.setQuantity(newQuantity);
-        return cartRepository.save(cart);
+    private Result mutate(String userEmail, Long expectedVersion, Consumer<CachedCart> mutation) {
+        return cartStore.write(userEmail, cart -> {
+            if (expectedVersion != null && expectedVersion != cart.version) {
+                throw new PreconditionFailedException("Cart has changed; current version is " + cart.version);
+            }
+            Map<Long, Integer> before = new HashMap<>();
+            cart.lines().forEach(line -> before.put(line.id, line.quantity));
+
+            mutation.accept(cart);
+            cart.touch();
+
+            if (expectedVersion == null) {
+                return new Result(cart.version, mapCartToDto(cart));
+            }
+            List<CartItemDto> changed = new ArrayList<>();
+            for (CachedCart.Line line : cart.lines()) {
+                Integer previous = before.remove(line.id);
+                if (previous == null || previous != line.quantity) {
+                    changed.add(mapLineToDto(line));
+                }
+            }
+            return new Result(cart.version, new CartDeltaDto(cart.version, changed, new ArrayList<>(before.keySet())));
+        });
     }
 
-    /**
-     * NEW: Removes an item completely from the user's cart.
-     */
-    @Transactional
-    private Cart removeItemFromCart(String userEmail, Long cartItemId) {
-        Cart cart = getOrCreateCartForUser(userEmail);
-        // The removeIf operation combined with orphanRemoval=true on the Cart entity
-        // will correctly delete the item from the database.
-        boolean removed = cart.getCartItems().removeIf(item -> item.getId().equals(cartItemId));
-        if (!removed) {
-            throw new ResourceNotFoundException("Cart item not found in user's cart");
+    private static CachedCart.Line findLine(Map<Long, CachedCart.Line> lines, CartPatchRequest.Operation operation, String where) {
+        CachedCart.Line found = null;
+        if (operation.getCartItemId() != null) {
+            for (CachedCart.Line line : lines.values()) {
+                if (line.id == operation.getCartItemId()) {
+                    found = line;
+                }
+            }
+        } else if (operation.getProductId() != null) {
+            found = lines.get(operation.getProductId());
+        } else {
+            throw new BadRequestException(where + "cartItemId or productId is required");
+        }
+        if (found == null) {
+            throw new ResourceNotFoundException(where + "Cart item not found in user's cart");
         }
-        return cartRepository.save(cart);
+        return found;
     }
 
-    private CartDto mapCartToDto(Cart cart) {
+    private static int requirePositive(Integer quantity, String where) {
+        if (quantity == null || quantity < 1) {
+            throw new BadRequestException(where + "quantity must be at least 1");
+        }
+        return quantity;
+    }
+
+    private CartDto mapCartToDto(CachedCart cart) {
         CartDto cartDto = new CartDto();
-        cartDto.setId(cart.getId());
-
-        UserDto userDto = new UserDto();
-        userDto.setId(cart.getUser().getId());
-        userDto.setEmail(cart.getUser().getEmail());
-        userDto.setFirstName(cart.getUser().getFirstName());
-        userDto.setLastName(cart.getUser().getLastName());
-        cartDto.setUser(userDto);
-
-        Set<CartItemDto> itemDtos = cart.getCartItems().stream().map(item -> {
-            CartItemDto itemDto = new CartItemDto();
-            itemDto.setId(item.getId());
-            itemDto.setQuantity(item.getQuantity());
-
-            ProductDto productDto = new ProductDto();
-            productDto.setId(item.getProduct().getId());
-            productDto.setName(item.getProduct().getName());
-            productDto.setPrice(item.getProduct().getPrice());
-            productDto.setImageUrl(item.getProduct().getImageUrl());
-            productDto.setBrandName(item.getProduct().getBrand().getName());
-            productDto.setCategoryName(item.getProduct().getCategory().getName());
-
-            itemDto.setProduct(productDto);
-            return itemDto;
-        }).collect(Collectors.toSet());
-
-        cartDto.setCartItems(itemDtos);
+        cartDto.setId(cart.cartId);
+        cartDto.setVersion(cart.version);
+        cartDto.setUser(cart.user);
+        cartDto.setCartItems(cart.lines().stream().map(this::mapLineToDto).collect(Collectors.toSet()));
         return cartDto;
     }
+
+    private CartItemDto mapLineToDto(CachedCart.Line item) {
+        CartItemDto itemDto = new CartItemDto();
+        itemDto.setId(item.id);
+        itemDto.setQuantity(item.quantity);
+
+        ProductDto productDto = new ProductDto();
+        productDto.setId(item.product.getId());
+        productDto.setName(item.product.getName());
+        productDto.setPrice(item.product.getPrice());
+        productDto.setImageUrl(item.product.getImageUrl());
+        productDto.setBrandName(item.product.getBrandName());
+        productDto.setCategoryName(item.product.getCategoryName());
+
+        itemDto.setProduct(productDto);
+        return itemDto;
+    }
+
+    /**
+     * A cart version plus the body to send: a CartDto, a CartDeltaDto, or null when not modified.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final long version;
+        private final Object body;
+    }
 }
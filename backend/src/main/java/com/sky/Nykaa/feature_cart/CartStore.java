@@ -0,0 +1,525 @@
+// src/main/java/com/sky/Nykaa/feature_cart/CartStore.java
+package com.sky.Nykaa.feature_cart;
+
+import com.sky.Nykaa.common.exception.ResourceNotFoundException;
+import com.sky.Nykaa.feature_product.CatalogVersion;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_product.dto.ProductDto;
+import com.sky.Nykaa.feature_user.User;
+import com.sky.Nykaa.feature_user.UserRepository;
+import com.sky.Nykaa.feature_user.dto.UserDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Write-behind store for shopping carts. Active carts live in memory keyed by user id and
+ * answer reads without touching the database; mutations mark the cart dirty and a background
+ * flusher writes all dirty carts every FLUSH_INTERVAL_MS in one transaction (one per cart if that
+ * fails on a bad row), so many edits to the same cart coalesce into one write. Clean carts are evicted after IDLE_EVICT_MS or when
+ * more than MAX_CARTS are held (least recently used first).
+ *
+ * Durability: a graceful shutdown flushes everything; a crash loses at most the last
+ * FLUSH_INTERVAL_MS of acknowledged cart changes (plus the time a failing flush keeps retrying).
+ * A cart whose own rows the database rejects is dropped from memory with its unsaved changes and
+ * reloaded on next access, so it cannot hold up every other cart.
+ * The store assumes it is the only writer of cart_items and a single application instance.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    static final long FLUSH_INTERVAL_MS = 1_000;
+    static final long SWEEP_INTERVAL_MS = 30_000;
+    static final long IDLE_EVICT_MS = TimeUnit.MINUTES.toMillis(30);
+    static final int MAX_CARTS = 10_000;
+    static final int LINE_ID_BLOCK = 50;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, CachedCart> carts = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    // Counts evictions, so a load that raced one can tell it may have read rows from before the final flush.
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Line ids are taken from cart_items_id_seq (the sequence the column's own ids come from) a block at a time,
+    // so new lines have their final id immediately and never collide with rows inserted any other way.
+    private final Deque<Long> lineIds = new ArrayDeque<>();
+
+    // One thread runs both flush and sweep, so an eviction never overlaps a flush of the same cart.
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cart-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Loads may run from another transaction's afterCommit callback (an order clearing the cart),
+    // where joining the finished transaction would leave a newly created cart row uncommitted.
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void start() {
+        loadTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Runs fn against the user's cart, loading it on first access.
+     */
+    <T> T read(String userEmail, Function<CachedCart, T> fn) {
+        return access(userId(userEmail), false, fn);
+    }
+
+    /**
+     * Runs fn against the user's cart and schedules the result for flushing.
+     * fn must validate before it mutates: an exception leaves the cart unflushed but not rolled back.
+     */
+    <T> T write(String userEmail, Function<CachedCart, T> fn) {
+        return access(userId(userEmail), true, fn);
+    }
+
+    /**
+     * Empties the user's cart, e.g. once an order has been placed from it.
+     */
+    public void clear(Long userId) {
+        access(userId, true, cart -> {
+            cart.clear();
+            cart.touch();
+            return null;
+        });
+    }
+
+    /**
+     * Drops a deleted product from every cached cart. Its cart_items rows are deleted by the caller.
+     */
+    public void productRemoved(Long productId) {
+        for (CachedCart cart : carts.values()) {
+            synchronized (cart) {
+                CachedCart.Line line = cart.lineForProduct(productId);
+                if (line != null) {
+                    cart.remove(line);
+                    cart.stored.remove(productId);
+                    cart.touch();
+                }
+            }
+        }
+    }
+
+    synchronized long nextLineId() {
+        if (lineIds.isEmpty()) {
+            lineIds.addAll(jdbcTemplate.queryForList("SELECT nextval('" + CartItem.ID_SEQUENCE + "') FROM generate_series(1, ?)",
+                    Long.class, LINE_ID_BLOCK));
+        }
+        return lineIds.removeFirst();
+    }
+
+    private <T> T access(Long userId, boolean write, Function<CachedCart, T> fn) {
+        while (true) {
+            CachedCart cart = carts.get(userId);
+            if (cart == null) {
+                // Loaded outside the map, so a cold cart's query never blocks other users' carts.
+                long evicted = evictions.get();
+                CachedCart loaded = load(userId);
+                if (evicted != evictions.get()) {
+                    continue;
+                }
+                cart = carts.putIfAbsent(userId, loaded);
+                if (cart == null) {
+                    cart = loaded;
+                }
+            }
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue; // lost a race with the sweeper; load a fresh copy
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                refreshProducts(userId, cart);
+                T result = fn.apply(cart);
+                if (write) {
+                    markDirty(userId, cart);
+                }
+                return result;
+            }
+        }
+    }
+
+    private Long userId(String userEmail) {
+        Long userId = userIdsByEmail.get(userEmail);
+        if (userId == null) {
+            User user = userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            userId = user.getId();
+            userIdsByEmail.put(userEmail, userId);
+        }
+        return userId;
+    }
+
+    // One statement for a cart that exists; creating a missing cart costs a user lookup and an insert once.
+    private CachedCart load(Long userId) {
+        long productsVersion = catalogVersion.current();
+        List<CartRow> rows;
+        try {
+            rows = loadRows(userId);
+        } catch (DataIntegrityViolationException e) {
+            rows = loadRows(userId); // a concurrent first load created the cart
+        }
+        return hydrate(rows, productsVersion);
+    }
+
+    private List<CartRow> loadRows(Long userId) {
+        return loadTransaction.execute(status -> {
+            List<CartRow> found = cartRepository.findCartRows(userId);
+            if (!found.isEmpty()) {
+                return mergeDuplicateLines(found) ? cartRepository.findCartRows(userId) : found;
+            }
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            Cart newCart = new Cart();
+            newCart.setUser(user);
+            cartRepository.save(newCart);
+            return cartRepository.findCartRows(userId);
+        });
+    }
+
+    private static CachedCart hydrate(List<CartRow> rows, long productsVersion) {
+        CartRow first = rows.get(0);
+        UserDto userDto = new UserDto();
+        userDto.setId(first.getUserId());
+        userDto.setEmail(first.getEmail());
+        userDto.setFirstName(first.getFirstName());
+        userDto.setLastName(first.getLastName());
+
+        CachedCart cached = new CachedCart(first.getCartId(), userDto);
+        cached.version = first.getCartVersion() == null ? 0 : first.getCartVersion();
+        for (CartRow row : rows) {
+            if (row.getLineId() == null) {
+                continue; // empty cart
+            }
+            ProductDto product = new ProductDto(row.getProductId(), row.getProductName(), row.getDescription(), row.getPrice(),
+                    row.getImageUrl(), row.getStockQuantity(), row.getCategoryName(), row.getBrandName());
+            cached.put(new CachedCart.Line(row.getLineId(), row.getProductId(), row.getQuantity(), product));
+            cached.stored.put(row.getProductId(), new long[]{row.getLineId(), row.getQuantity()});
+        }
+        cached.productsVersion = productsVersion;
+        return cached;
+    }
+
+    // Carts saved before uk_cart_items_cart_product existed may hold a product on several rows (and the
+    // constraint cannot be added while they do). The cart and the flush key lines by product, so the extra
+    // rows are folded into the oldest one here. Returns whether any row changed.
+    private boolean mergeDuplicateLines(List<CartRow> rows) {
+        Map<Long, long[]> kept = new HashMap<>(); // product id -> {line id, merged quantity, 1 if merged}
+        List<Object[]> deletes = new ArrayList<>();
+        for (CartRow row : rows) {
+            if (row.getLineId() == null) {
+                continue;
+            }
+            long[] first = kept.get(row.getProductId());
+            if (first == null) {
+                kept.put(row.getProductId(), new long[]{row.getLineId(), row.getQuantity(), 0});
+            } else {
+                first[1] += row.getQuantity();
+                first[2] = 1;
+                deletes.add(new Object[]{row.getLineId()});
+            }
+        }
+        if (deletes.isEmpty()) {
+            return false;
+        }
+        List<Object[]> updates = kept.values().stream()
+                .filter(line -> line[2] == 1)
+                .map(line -> new Object[]{line[1], line[0]})
+                .toList();
+        log.warn("Merging {} duplicate cart lines of cart {}", deletes.size(), rows.get(0).getCartId());
+        jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ?", deletes);
+        jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ? WHERE id = ?", updates);
+        return true;
+    }
+
+    // Reloads line product details (price, name, image...) in one query once the catalog has moved on.
+    // A cart whose details actually changed gets a new version, so clients holding the old one refetch.
+    private void refreshProducts(Long userId, CachedCart cart) {
+        long version = catalogVersion.current();
+        if (cart.productsVersion == version) {
+            return;
+        }
+        if (!cart.lines().isEmpty()) {
+            List<Long> productIds = cart.lines().stream().map(line -> line.productId).toList();
+            Map<Long, ProductDto> products = new HashMap<>();
+            productRepository.findDtosByIdIn(productIds).forEach(p -> products.put(p.getId(), p));
+            for (CachedCart.Line line : new ArrayList<>(cart.lines())) {
+                ProductDto product = products.get(line.productId);
+                if (product == null) {
+                    cart.remove(line); // product deleted since the cart was loaded
+                    cart.touch();
+                    markDirty(userId, cart);
+                } else if (line.product == null || !sameAsShown(line.product, product)) {
+                    if (line.product != null) {
+                        cart.touch();
+                    }
+                    line.product = product;
+                }
+            }
+        }
+        cart.productsVersion = version;
+    }
+
+    // Only the fields a cart response shows; stock moves with every order and must not bump cart versions.
+    private static boolean sameAsShown(ProductDto a, ProductDto b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getPrice(), b.getPrice())
+                && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                && Objects.equals(a.getBrandName(), b.getBrandName())
+                && Objects.equals(a.getCategoryName(), b.getCategoryName());
+    }
+
+    private void markDirty(Long userId, CachedCart cart) {
+        cart.dirty = true;
+        dirtyUsers.add(userId);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Cart flush failed, will retry", e);
+        }
+    }
+
+    /**
+     * Writes every dirty cart in one transaction. Only lines that changed since the cart's last
+     * flush are touched: new lines are inserted, changed ones updated, removed ones deleted, so
+     * the cost follows the number of edits rather than the size of the cart. When the database
+     * rejects a row, the carts are written again one transaction each and a cart that fails on its
+     * own is quarantined; on any other failure they are marked dirty again and retried on the next run.
+     */
+    void flush() {
+        // Serialized, so a caller (shutdown, tests) never returns while the background run is still writing.
+        synchronized (flushLock) {
+            flushDirty();
+        }
+    }
+
+    private void flushDirty() {
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(dirtyUsers);
+        dirtyUsers.removeAll(userIds);
+
+        List<CartChanges> changes = new ArrayList<>();
+        for (Long userId : userIds) {
+            CachedCart cart = carts.get(userId);
+            if (cart == null) {
+                continue;
+            }
+            synchronized (cart) {
+                if (!cart.dirty) {
+                    continue;
+                }
+                cart.dirty = false;
+                changes.add(changesOf(userId, cart));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(changes);
+            changes.forEach(this::stored);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            if (changes.size() == 1) {
+                quarantine(changes.get(0), e);
+                return;
+            }
+            log.warn("Cart flush of {} carts hit a bad row, writing them one at a time", changes.size(), e);
+        } catch (RuntimeException e) {
+            changes.forEach(this::retry);
+            throw e;
+        }
+
+        RuntimeException failure = null;
+        for (CartChanges cartChanges : changes) {
+            try {
+                write(List.of(cartChanges));
+                stored(cartChanges);
+            } catch (DataIntegrityViolationException e) {
+                quarantine(cartChanges, e);
+            } catch (RuntimeException e) {
+                retry(cartChanges);
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Compares the cart with what its last flush stored. Called with the cart's lock held.
+    private static CartChanges changesOf(Long userId, CachedCart cart) {
+        CartChanges changes = new CartChanges(userId, cart);
+        changes.versions.add(new Object[]{cart.version, cart.cartId});
+        for (CachedCart.Line line : cart.lines()) {
+            changes.next.put(line.productId, new long[]{line.id, line.quantity});
+            long[] stored = cart.stored.get(line.productId);
+            if (stored == null) {
+                changes.inserts.add(new Object[]{line.id, cart.cartId, line.productId, line.quantity});
+            } else if (stored[0] != line.id || stored[1] != line.quantity) {
+                changes.updates.add(new Object[]{line.id, line.quantity, cart.cartId, line.productId});
+            }
+        }
+        for (Long productId : cart.stored.keySet()) {
+            if (!changes.next.containsKey(productId)) {
+                changes.deletes.add(new Object[]{cart.cartId, productId});
+            }
+        }
+        return changes;
+    }
+
+    // All the carts' statements in one transaction, batched across carts.
+    private void write(List<CartChanges> changes) {
+        List<Object[]> versions = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (CartChanges cartChanges : changes) {
+            versions.addAll(cartChanges.versions);
+            deletes.addAll(cartChanges.deletes);
+            updates.addAll(cartChanges.updates);
+            inserts.addAll(cartChanges.inserts);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("UPDATE carts SET version = ? WHERE id = ?", versions);
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?", deletes);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE cart_items SET id = ?, quantity = ? WHERE cart_id = ? AND product_id = ?", updates);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, ?)", inserts);
+            }
+        });
+    }
+
+    private void stored(CartChanges changes) {
+        synchronized (changes.cart) {
+            changes.cart.stored = changes.next;
+        }
+    }
+
+    private void retry(CartChanges changes) {
+        synchronized (changes.cart) {
+            if (!changes.cart.evicted) {
+                markDirty(changes.userId, changes.cart);
+            }
+        }
+    }
+
+    // Retrying the same rows would fail forever, so the cart's unsaved changes are given up and the
+    // next access reloads it from the database.
+    private void quarantine(CartChanges changes, RuntimeException e) {
+        log.error("Cart {} of user {} could not be saved; dropping its unsaved changes and reloading it",
+                changes.cart.cartId, changes.userId, e);
+        synchronized (changes.cart) {
+            drop(changes.userId, changes.cart);
+        }
+    }
+
+    private void sweep() {
+        long idleCutoff = System.currentTimeMillis() - IDLE_EVICT_MS;
+        carts.forEach((userId, cart) -> {
+            if (cart.lastAccess < idleCutoff) {
+                evict(userId, cart);
+            }
+        });
+        int excess = carts.size() - MAX_CARTS;
+        if (excess > 0) {
+            // Snapshot access times first; they keep moving while we sort.
+            List<Map.Entry<Long, CachedCart>> byAge = new ArrayList<>();
+            Map<CachedCart, Long> accessed = new HashMap<>();
+            carts.forEach((userId, cart) -> {
+                byAge.add(Map.entry(userId, cart));
+                accessed.put(cart, cart.lastAccess);
+            });
+            byAge.sort(Comparator.comparingLong(e -> accessed.get(e.getValue())));
+            byAge.stream().limit(excess).forEach(e -> evict(e.getKey(), e.getValue()));
+        }
+    }
+
+    // Dirty carts stay until a flush has written them.
+    private void evict(Long userId, CachedCart cart) {
+        synchronized (cart) {
+            if (cart.dirty) {
+                return;
+            }
+            drop(userId, cart);
+        }
+    }
+
+    // Called with the cart's lock held.
+    private void drop(Long userId, CachedCart cart) {
+        cart.evicted = true;
+        evictions.incrementAndGet();
+        carts.remove(userId, cart);
+        userIdsByEmail.remove(cart.user.getEmail(), userId);
+    }
+
+    // One dirty cart's pending statements and the lines it will have stored once they commit.
+    private static class CartChanges {
+        final Long userId;
+        final CachedCart cart;
+        final Map<Long, long[]> next = new HashMap<>();
+        final List<Object[]> versions = new ArrayList<>();
+        final List<Object[]> deletes = new ArrayList<>();
+        final List<Object[]> updates = new ArrayList<>();
+        final List<Object[]> inserts = new ArrayList<>();
+
+        CartChanges(Long userId, CachedCart cart) {
+            this.userId = userId;
+            this.cart = cart;
+        }
+    }
+}
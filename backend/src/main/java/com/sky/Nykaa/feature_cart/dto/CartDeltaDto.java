@@ -0,0 +1,16 @@
+// src/main/java/com/sky/Nykaa/feature_cart/dto/CartDeltaDto.java
+package com.sky.Nykaa.feature_cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Reply to a conditional (If-Match) cart mutation: only the lines that changed, plus the new version.
+@Data
+@AllArgsConstructor
+public class CartDeltaDto {
+    private long version;
+    private List<CartItemDto> changedItems;
+    private List<Long> removedItemIds;
+}
@@ -7,6 +7,7 @@ import java.util.Set;
 @Data
 public class CartDto {
     private Long id;
+    private Long version;
     private UserDto user;
     private Set<CartItemDto> cartItems;
 }
\ No newline at end of file
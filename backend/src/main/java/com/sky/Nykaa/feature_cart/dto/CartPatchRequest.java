@@ -0,0 +1,32 @@
+// src/main/java/com/sky/Nykaa/feature_cart/dto/CartPatchRequest.java
+package com.sky.Nykaa.feature_cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+// Body of PATCH /api/cart: operations applied in order, all or nothing.
+@Data
+public class CartPatchRequest {
+
+    @NotEmpty
+    private List<@Valid @NotNull Operation> operations;
+
+    @Data
+    public static class Operation {
+        // "add", "update" or "remove"
+        @NotNull
+        private String op;
+
+        // add: the product to add. update/remove: alternative to cartItemId.
+        private Long productId;
+
+        private Long cartItemId;
+
+        // add: quantity to add. update: the new quantity.
+        private Integer quantity;
+    }
+}
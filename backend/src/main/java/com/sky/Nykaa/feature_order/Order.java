@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_order_date", columnList = "order_date")
+})
 @Getter
 @Setter
 @EqualsAndHashCode(exclude = "orderItems")
@@ -1,17 +1,32 @@
 // src/main/java/com/sky/Nykaa/feature_order/OrderController.java
 package com.sky.Nykaa.feature_order;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sky.Nykaa.common.IdempotencyStore;
+import com.sky.Nykaa.feature_order.dto.AdminOrderPage;
+import com.sky.Nykaa.feature_order.dto.BulkStatusUpdateRequest;
+import com.sky.Nykaa.feature_order.dto.BulkStatusUpdateResult;
 import com.sky.Nykaa.feature_order.dto.CreateOrderRequest;
 import com.sky.Nykaa.feature_order.dto.OrderDto;
+import com.sky.Nykaa.feature_order.dto.OrderIntakeDto;
+import com.sky.Nykaa.feature_order.dto.OrderSummaryPage;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,14 +35,60 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderIntake orderIntake;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     /**
      * Handles POST requests to create a new order.
      */
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
                                                 @AuthenticationPrincipal UserDetails userDetails) {
-        OrderDto createdOrderDto = orderService.createOrderAndMapToDto(request, userDetails.getUsername());
-        return new ResponseEntity<>(createdOrderDto, HttpStatus.CREATED);
+        String userEmail = userDetails.getUsername();
+        // NEW: A retry with the same Idempotency-Key gets the first response instead of placing a second order.
+        return idempotencyStore.executeInTransaction(idempotencyKey, "POST /api/orders " + userEmail, request,
+                new TypeReference<>() {}, () -> {
+                    OrderDto createdOrderDto = orderService.createOrderAndMapToDto(request, userEmail);
+                    return new ResponseEntity<>(createdOrderDto, HttpStatus.CREATED);
+                });
+    }
+
+    /**
+     * NEW: Asynchronous mode of order placement, selected by the header "Prefer: respond-async".
+     * The order is validated and queued; the 202 response carries a ticket whose Location can be
+     * polled (or long-polled with waitSeconds) until it reports PLACED with the order id, or REJECTED.
+     */
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<OrderIntakeDto> submitOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                      @AuthenticationPrincipal UserDetails userDetails) {
+        String userEmail = userDetails.getUsername();
+        return idempotencyStore.execute(idempotencyKey, "POST /api/orders async " + userEmail, request,
+                new TypeReference<>() {}, () -> {
+                    OrderIntakeDto ticket = orderIntake.submit(request, userEmail);
+                    return ResponseEntity.accepted()
+                            .location(URI.create("/api/orders/intake/" + ticket.getTicketId()))
+                            .header("Preference-Applied", "respond-async")
+                            .body(ticket);
+                });
+    }
+
+    /**
+     * NEW: State of an asynchronously submitted order. With waitSeconds (max 30) the response is held
+     * until the order is placed or rejected, or the wait runs out.
+     */
+    @GetMapping("/intake/{ticketId}")
+    public CompletableFuture<ResponseEntity<OrderIntakeDto>> getIntakeStatus(@PathVariable String ticketId,
+                                                                             @RequestParam(defaultValue = "0") int waitSeconds,
+                                                                             @AuthenticationPrincipal UserDetails userDetails) {
+        return orderIntake.await(ticketId, userDetails.getUsername(), waitSeconds).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -40,6 +101,26 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * NEW: Cursor mode of the order history, selected by the presence of the "after" parameter.
+     * Returns summaries only; fetch a single order for its items.
+     * Example URL: /api/orders?after=&size=10
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<OrderSummaryPage> getOrderHistoryPage(@AuthenticationPrincipal UserDetails userDetails,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(orderService.getOrderSummaries(userDetails.getUsername(), after, size));
+    }
+
+    /**
+     * NEW: One of the authenticated user's orders, with its items.
+     */
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderDto> getOrder(@PathVariable Long orderId, @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(orderService.getOrderForUser(orderId, userDetails.getUsername()));
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<OrderDto>> getAllOrders() {
@@ -47,6 +128,59 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * NEW: Cursor mode of the admin listing, selected by the presence of the "after" parameter. (Admin only)
+     * Filters are optional: status, from (inclusive) and to (exclusive) as ISO date-times, userId, email.
+     * Example URL: /api/orders/all?after=&size=50&status=PENDING&from=2025-01-01T00:00:00
+     */
+    @GetMapping(value = "/all", params = "after")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminOrderPage> getAdminOrderPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getAdminOrders(status, from, to, userId, email, after, size));
+    }
+
+    /**
+     * NEW: Streams every order matching the same filters as NDJSON, one order with its items per line. (Admin only)
+     * The body is gzipped when the client sends Accept-Encoding: gzip.
+     * Example URL: /api/orders/export?status=DELIVERED&from=2025-01-01T00:00:00
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String email,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String statusFilter = status == null || status.isBlank() ? null : status;
+        String emailFilter = email == null || email.isBlank() ? null : email;
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                orderExportService.export(statusFilter, from, to, userId, emailFilter, gzipOut);
+                gzipOut.finish();
+            } else {
+                orderExportService.export(statusFilter, from, to, userId, emailFilter, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @PutMapping("/{orderId}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable Long orderId, @RequestBody java.util.Map<String, String> statusPayload) {
@@ -55,6 +189,17 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    /**
+     * NEW: Moves many orders to one status at once and returns counts and failures only. (Admin only)
+     * Body: {"status":"SHIPPED","orderIds":[1,2,3]} or {"status":"SHIPPED","filter":{"status":"PROCESSING","to":"2025-01-02T00:00:00"}}
+     * A filter moves at most 1,000 orders per call; repeat the call while hasMore is true.
+     */
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkStatusUpdateResult> bulkUpdateOrderStatus(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(request));
+    }
+
     /**
      * Handles GET requests to fetch a user's saved shipping addresses.
      */
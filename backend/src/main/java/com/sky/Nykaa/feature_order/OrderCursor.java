@@ -0,0 +1,38 @@
+package com.sky.Nykaa.feature_order;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last order a client has seen in a keyset-paginated order listing (newest first).
+ * Serialized as an opaque url-safe token of the form "o|id".
+ */
+public final class OrderCursor {
+
+    private OrderCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("o|" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by encode(). A blank token means "start from the newest order" and yields null.
+     */
+    public static Long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith("o|")) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(2));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
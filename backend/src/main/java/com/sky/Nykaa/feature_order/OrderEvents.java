@@ -0,0 +1,44 @@
+// src/main/java/com/sky/Nykaa/feature_order/OrderEvents.java
+package com.sky.Nykaa.feature_order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox event types published by OrderService, with their payloads.
+ */
+public final class OrderEvents {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+    public static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+
+    private OrderEvents() {
+    }
+
+    // items: product id -> units taken out of stock
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Placed {
+        private Long orderId;
+        private Long userId;
+        private String shippingAddress;
+        private BigDecimal totalAmount;
+        private Map<Long, Integer> items;
+    }
+
+    // The ids of the orders moved; a bulk update publishes one event per call.
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusChanged {
+        private String status;
+        private List<Long> orderIds;
+        private int updated;
+    }
+}
@@ -0,0 +1,149 @@
+// src/main/java/com/sky/Nykaa/feature_order/OrderExportService.java
+package com.sky.Nykaa.feature_order;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON dump of orders with their lines for ops and finance. Like ProductExportService, rows come
+ * through a forward-only cursor and are written as they arrive; the lines of an order are adjacent in
+ * the result, so only the order being written is held in memory.
+ */
+@Service
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String SELECT = "SELECT o.id, o.order_date, o.status, o.total_amount, o.shipping_address, " +
+            "u.id AS user_id, u.email, oi.product_id, p.name AS product_name, oi.quantity, oi.price " +
+            "FROM orders o JOIN users u ON u.id = o.user_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id LEFT JOIN products p ON p.id = oi.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes every order matching the filters (each may be null) to out, one JSON object per line, ordered by id.
+     * from is inclusive and to exclusive.
+     */
+    public void export(String status, LocalDateTime from, LocalDateTime to, Long userId, String email,
+                       OutputStream out) throws IOException {
+        // Only the filters actually given become predicates, so the planner can use the matching index.
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status);
+        }
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (userId != null) {
+            sql.append(" AND o.user_id = ?");
+            args.add(userId);
+        }
+        if (email != null) {
+            sql.append(" AND u.email = ?");
+            args.add(email);
+        }
+        sql.append(" ORDER BY o.id, oi.id");
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        OrderWriter orderWriter = new OrderWriter(objectMapper.getFactory().createGenerator(writer));
+        try {
+            readOnlyTransaction.executeWithoutResult(txStatus -> jdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    orderWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // usually the client went away mid-download
+        }
+        orderWriter.finish();
+    }
+
+    private static class OrderWriter {
+        private final JsonGenerator generator;
+        private long currentId = -1;
+
+        OrderWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.setRootValueSeparator(null);
+        }
+
+        void write(ResultSet rs) throws SQLException, IOException {
+            long orderId = rs.getLong("id");
+            if (orderId != currentId) {
+                endOrder();
+                currentId = orderId;
+                generator.writeStartObject();
+                generator.writeNumberField("id", orderId);
+                generator.writeStringField("orderDate", rs.getTimestamp("order_date").toLocalDateTime().toString());
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeNumberField("totalAmount", rs.getBigDecimal("total_amount"));
+                generator.writeStringField("shippingAddress", rs.getString("shipping_address"));
+                generator.writeNumberField("userId", rs.getLong("user_id"));
+                generator.writeStringField("userEmail", rs.getString("email"));
+                generator.writeArrayFieldStart("items");
+            }
+            long productId = rs.getLong("product_id");
+            if (rs.wasNull()) {
+                return; // an order without lines
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("productId", productId);
+            generator.writeStringField("productName", rs.getString("product_name"));
+            generator.writeNumberField("quantity", rs.getInt("quantity"));
+            generator.writeNumberField("price", rs.getBigDecimal("price"));
+            generator.writeEndObject();
+        }
+
+        private void endOrder() throws IOException {
+            if (currentId != -1) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        void finish() throws IOException {
+            endOrder();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+// src/main/java/com/sky/Nykaa/feature_order/OrderIntake.java
+package com.sky.Nykaa.feature_order;
+
+import com.sky.Nykaa.common.exception.ResourceNotFoundException;
+import com.sky.Nykaa.common.exception.ServiceUnavailableException;
+import com.sky.Nykaa.feature_order.dto.CreateOrderRequest;
+import com.sky.Nykaa.feature_order.dto.OrderIntakeDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake. Submitted orders wait in a bounded queue; one worker thread drains it in
+ * batches of up to BATCH_SIZE and places each batch in a single transaction, so a burst of orders
+ * costs one commit per batch instead of one per order and request threads never wait on row locks.
+ *
+ * Orders that fail validation or their stock claim (OrderService.prepare, which writes nothing) are
+ * rejected without affecting the rest of the batch. Any later failure rolls the batch back and its
+ * orders are retried one transaction each. Tickets live in memory only: queued orders are lost on a
+ * crash, and finished tickets are forgotten after TICKET_TTL_MS.
+ */
+@Component
+public class OrderIntake {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntake.class);
+
+    static final int CAPACITY = 10_000;
+    static final int BATCH_SIZE = 100;
+    static final long TICKET_TTL_MS = TimeUnit.HOURS.toMillis(1);
+    static final int MAX_WAIT_SECONDS = 30;
+    private static final long SWEEP_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired private OrderService orderService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Ticket> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Thread worker = new Thread(this::drain, "order-intake");
+    private volatile boolean running = true;
+    private long nextSweep;
+
+    @PostConstruct
+    void start() {
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Stops taking new orders and lets the worker place everything already queued.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Queues the order and returns its ticket. Fails with 503 when the queue is full or shutting down.
+     */
+    public OrderIntakeDto submit(CreateOrderRequest request, String userEmail) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), request, userEmail);
+        tickets.put(ticket.id, ticket);
+        if (!running || !queue.offer(ticket)) {
+            tickets.remove(ticket.id);
+            throw new ServiceUnavailableException("Too many orders are waiting to be placed. Please try again shortly.");
+        }
+        return ticket.toDto();
+    }
+
+    /**
+     * The ticket's current state, or its final state if that arrives within waitSeconds (capped at
+     * MAX_WAIT_SECONDS). Tickets of other users are reported as not found.
+     */
+    public CompletableFuture<OrderIntakeDto> await(String ticketId, String userEmail, int waitSeconds) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.userEmail.equals(userEmail)) {
+            throw new ResourceNotFoundException("Order ticket not found: " + ticketId);
+        }
+        int wait = Math.min(waitSeconds, MAX_WAIT_SECONDS);
+        if (wait <= 0 || ticket.done.isDone()) {
+            return CompletableFuture.completedFuture(ticket.toDto());
+        }
+        return ticket.done.copy()
+                .completeOnTimeout(null, wait, TimeUnit.SECONDS)
+                .thenApply(ignored -> ticket.toDto());
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<Ticket> batch = new ArrayList<>(BATCH_SIZE);
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    process(batch);
+                }
+                sweep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake worker failed", e);
+            }
+        }
+    }
+
+    void process(List<Ticket> batch) {
+        Map<Ticket, Long> placed = new LinkedHashMap<>();
+        Map<Ticket, String> rejected = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Ticket ticket : batch) {
+                    OrderService.PreparedOrder prepared;
+                    try {
+                        prepared = orderService.prepare(ticket.request, ticket.userEmail);
+                    } catch (RuntimeException e) {
+                        rejected.put(ticket, e.getMessage());
+                        continue;
+                    }
+                    placed.put(ticket, orderService.place(prepared).getId());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Order batch of {} rolled back ({}); placing its orders one by one", batch.size(), e.getMessage());
+            for (Ticket ticket : batch) {
+                try {
+                    ticket.finish("PLACED", orderService.createOrderAndMapToDto(ticket.request, ticket.userEmail).getId(), null);
+                } catch (RuntimeException orderFailure) {
+                    ticket.finish("REJECTED", null, orderFailure.getMessage());
+                }
+            }
+            return;
+        }
+        placed.forEach((ticket, orderId) -> ticket.finish("PLACED", orderId, null));
+        rejected.forEach((ticket, message) -> ticket.finish("REJECTED", null, message));
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        if (now < nextSweep) {
+            return;
+        }
+        nextSweep = now + SWEEP_INTERVAL_MS;
+        tickets.values().removeIf(ticket -> ticket.done.isDone() && ticket.finishedAt + TICKET_TTL_MS < now);
+    }
+
+    static final class Ticket {
+        final String id;
+        final CreateOrderRequest request;
+        final String userEmail;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile String status = "QUEUED";
+        private volatile Long orderId;
+        private volatile String message;
+        private volatile long finishedAt;
+
+        Ticket(String id, CreateOrderRequest request, String userEmail) {
+            this.id = id;
+            this.request = request;
+            this.userEmail = userEmail;
+        }
+
+        void finish(String status, Long orderId, String message) {
+            this.orderId = orderId;
+            this.message = message;
+            this.finishedAt = System.currentTimeMillis();
+            this.status = status;
+            done.complete(null);
+        }
+
+        OrderIntakeDto toDto() {
+            return new OrderIntakeDto(id, status, orderId, message);
+        }
+    }
+}
@@ -5,9 +5,15 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 public interface OrderItemRepository extends JpaRepository<OrderItem,Long> {
     @Modifying
     @Transactional
     @Query("DELETE FROM OrderItem oi WHERE oi.product.id = :productId")
     void deleteByProductId(Long productId);
+
+    // Rows of (product id, total units ordered), used to rank suggestions by popularity.
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.id")
+    List<Object[]> sumQuantityByProduct();
 }
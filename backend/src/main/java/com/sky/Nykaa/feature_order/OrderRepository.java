@@ -1,17 +1,138 @@
 package com.sky.Nykaa.feature_order;
 
+import com.sky.Nykaa.feature_analytics.SaleLine;
+import com.sky.Nykaa.feature_order.dto.AdminOrderSummaryDto;
+import com.sky.Nykaa.feature_order.dto.OrderSummaryDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    // UPDATED: Fetches items, products and their taxonomy with the orders instead of lazily per order.
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product", "orderItems.product.category", "orderItems.product.brand"})
     List<Order> findByUser_Id(Long userId);
 
-    // NEW QUERY: Selects only the distinct shippingAddress strings for a given user ID.
-    @Query("SELECT DISTINCT o.shippingAddress FROM Order o WHERE o.user.id = :userId")
-    List<String> findDistinctShippingAddressesByUserId(@Param("userId") Long userId);
+    /**
+     * NEW: One order with everything OrderDto shows, in one statement. Scoped to the owner.
+     */
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product", "orderItems.product.category", "orderItems.product.brand"})
+    Optional<Order> findByIdAndUser_Id(Long id, Long userId);
+
+    /**
+     * NEW: Order history summaries, newest first, strictly before lastId. Item count and thumbnail
+     * come from correlated subqueries, so no order lines or products are loaded.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_order.dto.OrderSummaryDto(o.id, o.orderDate, o.status, o.totalAmount, " +
+            "(SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.order = o), " +
+            "(SELECT p.imageUrl FROM OrderItem f JOIN f.product p WHERE f.id = " +
+            "(SELECT MIN(m.id) FROM OrderItem m WHERE m.order = o))) " +
+            "FROM Order o WHERE o.user.id = :userId AND (:lastId IS NULL OR o.id < :lastId) " +
+            "ORDER BY o.id DESC")
+    Slice<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * NEW: Admin listing, newest first, strictly before lastId. Every filter is optional (null).
+     * from is inclusive and to exclusive.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_order.dto.AdminOrderSummaryDto(o.id, o.orderDate, o.status, o.totalAmount, " +
+            "(SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.order = o), " +
+            "u.id, u.email, u.firstName, u.lastName) " +
+            "FROM Order o JOIN o.user u WHERE " +
+            "(:status IS NULL OR o.status = :status) AND " +
+            "(:from IS NULL OR o.orderDate >= :from) AND " +
+            "(:to IS NULL OR o.orderDate < :to) AND " +
+            "(:userId IS NULL OR u.id = :userId) AND " +
+            "(:email IS NULL OR u.email = :email) AND " +
+            "(:lastId IS NULL OR o.id < :lastId) " +
+            "ORDER BY o.id DESC")
+    Slice<AdminOrderSummaryDto> findAdminSummaries(@Param("status") String status,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("userId") Long userId,
+                                                   @Param("email") String email,
+                                                   @Param("lastId") Long lastId,
+                                                   Pageable pageable);
+
+    // UPDATED: The full admin list, with items, products and taxonomy fetched in the same statement.
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product", "orderItems.product.category", "orderItems.product.brand"})
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllWithItems();
+
+    /**
+     * NEW: Current status of each of the given orders that exists, locking them until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<StatusView> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * NEW: Orders matching the admin listing filters and currently in one of allowedFrom, lowest id first,
+     * locking them until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.status IN :allowedFrom AND " +
+            "(:filterStatus IS NULL OR o.status = :filterStatus) AND " +
+            "(:from IS NULL OR o.orderDate >= :from) AND " +
+            "(:to IS NULL OR o.orderDate < :to) AND " +
+            "(:userId IS NULL OR o.user.id = :userId) AND " +
+            "(:email IS NULL OR o.user.id IN (SELECT u.id FROM User u WHERE u.email = :email)) ORDER BY o.id")
+    List<StatusView> lockMovableMatching(@Param("allowedFrom") Collection<String> allowedFrom,
+                                         @Param("filterStatus") String filterStatus,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("userId") Long userId,
+                                         @Param("email") String email,
+                                         Pageable pageable);
+
+    /**
+     * NEW: Moves the given orders to status, but only those currently in one of allowedFrom. Returns the rows changed.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id IN :ids AND o.status IN :allowedFrom")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") String status,
+                           @Param("allowedFrom") Collection<String> allowedFrom);
+
+    /**
+     * NEW: Orders matching the same filters that are neither in status already nor allowed to move to it.
+     */
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.status <> :status AND o.status NOT IN :allowedFrom AND " +
+            "(:filterStatus IS NULL OR o.status = :filterStatus) AND " +
+            "(:from IS NULL OR o.orderDate >= :from) AND " +
+            "(:to IS NULL OR o.orderDate < :to) AND " +
+            "(:userId IS NULL OR o.user.id = :userId) AND " +
+            "(:email IS NULL OR o.user.id IN (SELECT u.id FROM User u WHERE u.email = :email))")
+    long countBlockedMatching(@Param("status") String status,
+                              @Param("allowedFrom") Collection<String> allowedFrom,
+                              @Param("filterStatus") String filterStatus,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              @Param("userId") Long userId,
+                              @Param("email") String email);
+
+    /**
+     * NEW: Sales lines of the given orders.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_analytics.SaleLine(o.id, o.orderDate, p.id, p.brand.id, p.category.id, i.quantity, i.price) " +
+            "FROM OrderItem i JOIN i.order o JOIN i.product p WHERE o.id IN :ids")
+    List<SaleLine> findSaleLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface StatusView {
+        Long getId();
+
+        String getStatus();
+    }
 }
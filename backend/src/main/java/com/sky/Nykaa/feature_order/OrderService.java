@@ -1,80 +1,141 @@
 // src/main/java/com/sky/Nykaa/feature_order/OrderService.java
 package com.sky.Nykaa.feature_order;
 
+import com.sky.Nykaa.common.AfterCommit;
+import com.sky.Nykaa.common.Outbox;
+import com.sky.Nykaa.common.exception.BadRequestException;
 import com.sky.Nykaa.common.exception.ResourceNotFoundException;
-import com.sky.Nykaa.feature_cart.Cart;
-import com.sky.Nykaa.feature_cart.CartRepository;
+import com.sky.Nykaa.feature_analytics.SaleLine;
+import com.sky.Nykaa.feature_analytics.SalesRollups;
+import com.sky.Nykaa.feature_cart.CartStore;
+import com.sky.Nykaa.feature_order.dto.AdminOrderPage;
+import com.sky.Nykaa.feature_order.dto.AdminOrderSummaryDto;
+import com.sky.Nykaa.feature_order.dto.BulkStatusUpdateRequest;
+import com.sky.Nykaa.feature_order.dto.BulkStatusUpdateResult;
 import com.sky.Nykaa.feature_order.dto.CreateOrderRequest;
 import com.sky.Nykaa.feature_order.dto.OrderDto;
 import com.sky.Nykaa.feature_order.dto.OrderItemDto;
+import com.sky.Nykaa.feature_order.dto.OrderSummaryDto;
+import com.sky.Nykaa.feature_order.dto.OrderSummaryPage;
 import com.sky.Nykaa.feature_product.Product;
 import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_product.StockLedger;
+import com.sky.Nykaa.feature_product.StockRepository;
 import com.sky.Nykaa.feature_product.dto.ProductDto;
+import com.sky.Nykaa.feature_user.AddressBook;
 import com.sky.Nykaa.feature_user.User;
 import com.sky.Nykaa.feature_user.UserRepository;
 import com.sky.Nykaa.feature_user.dto.UserDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BULK_IDS = 1_000;
+
     @Autowired private OrderRepository orderRepository;
     @Autowired private ProductRepository productRepository;
+    @Autowired private StockRepository stockRepository;
+    @Autowired private StockLedger stockLedger;
     @Autowired private UserRepository userRepository;
-    @Autowired private CartRepository cartRepository;
+    @Autowired private CartStore cartStore;
+    @Autowired private AddressBook addressBook;
+    @Autowired private Outbox outbox;
+    @Autowired private SalesRollups salesRollups;
 
+    // The order, its stock decrements and the cart clear commit or roll back together.
+    @Transactional
     public OrderDto createOrderAndMapToDto(CreateOrderRequest request, String userEmail) {
         Order order = createOrderInDatabase(request, userEmail);
         return mapEntityToDto(order);
     }
 
-    @Transactional
     private Order createOrderInDatabase(CreateOrderRequest request, String userEmail) {
-        // ... (this method is correct and does not need changes)
+        return place(prepare(request, userEmail));
+    }
+
+    /**
+     * First half of placing an order: validation, the user lookup and the stock claim. Writes nothing,
+     * so a failure here leaves the surrounding transaction usable (OrderIntake relies on this to
+     * reject one order of a batch without rolling back the rest). Must run inside a transaction.
+     */
+    PreparedOrder prepare(CreateOrderRequest request, String userEmail) {
         if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
             throw new IllegalStateException("Order request must contain at least one item.");
         }
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userEmail));
 
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        // NEW: Checks against stock held by other checkouts and uses this checkout's own hold, if any.
+        StockLedger.Hold hold = stockLedger.claim(request.getRazorpayOrderId(), userEmail, quantities);
+        AfterCommit.onCompletion(committed -> stockLedger.settle(hold, committed));
+        return new PreparedOrder(request, user, quantities);
+    }
+
+    /**
+     * Second half: takes the stock and inserts the order. A failure here must roll the transaction back.
+     */
+    Order place(PreparedOrder prepared) {
+        CreateOrderRequest request = prepared.request;
+        User user = prepared.user;
+        Map<Long, Integer> quantities = prepared.quantities;
+
         Order order = new Order();
         order.setUser(user);
         order.setStatus("PENDING");
         order.setShippingAddress(request.getShippingAddress());
 
-        Set<OrderItem> orderItems = new HashSet<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        List<Product> productsToUpdate = new ArrayList<>();
+        // UPDATED: Stock is taken with one batch of conditional UPDATEs instead of a findById,
+        // a check in Java and a save per line, which could oversell under concurrent checkouts.
+        List<Long> unavailable = stockRepository.decrement(quantities);
 
-        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + itemRequest.getProductId()));
+        // Loaded after the decrement, so the stock shown in the response is current.
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findWithTaxonomyByIdIn(quantities.keySet()).forEach(p -> products.put(p.getId(), p));
+        for (Long productId : unavailable) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+            throw new IllegalStateException("Not enough stock for product: " + productId);
+        }
 
+        Set<OrderItem> orderItems = new HashSet<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
             if (product.getPrice() == null) throw new IllegalStateException("Product price is null");
-            if (product.getStockQuantity() < itemRequest.getQuantity()) throw new IllegalStateException("Not enough stock");
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
-            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setQuantity(line.getValue());
             orderItem.setPrice(product.getPrice());
             orderItem.setOrder(order);
             orderItems.add(orderItem);
 
-            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
-            product.setStockQuantity(product.getStockQuantity() - itemRequest.getQuantity());
-            productsToUpdate.add(product);
+            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
         }
 
-        productRepository.saveAll(productsToUpdate);
         order.setOrderItems(orderItems);
 
 // ✅ Take total from frontend request (which already includes GST + shipping)
@@ -85,19 +146,34 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
+        salesRollups.record(saleLines(savedOrder), 1);
 
-        Cart userCart = cartRepository.findByUser_Id(user.getId())
-                .orElseThrow(() -> new IllegalStateException("Could not find cart for user to clear."));
-        userCart.getCartItems().clear();
-        cartRepository.save(userCart);
+        Long userId = user.getId();
+        AfterCommit.run(() -> cartStore.clear(userId));
+        // NEW: Address book and other follow-up work happens off the request, from the outbox.
+        outbox.publish(OrderEvents.ORDER_PLACED, savedOrder.getId(), new OrderEvents.Placed(savedOrder.getId(), userId,
+                savedOrder.getShippingAddress(), savedOrder.getTotalAmount(), quantities));
 
         return savedOrder;
     }
 
+    static final class PreparedOrder {
+        private final CreateOrderRequest request;
+        private final User user;
+        private final Map<Long, Integer> quantities;
+
+        private PreparedOrder(CreateOrderRequest request, User user, Map<Long, Integer> quantities) {
+            this.request = request;
+            this.user = user;
+            this.quantities = quantities;
+        }
+    }
+
+    // UPDATED: Read from the address book (at most ten rows, usually cached) instead of a DISTINCT over all of the user's orders.
     public List<String> getSavedAddressesForUser(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
-        return orderRepository.findDistinctShippingAddressesByUserId(user.getId());
+        return addressBook.addresses(user.getId());
     }
 
     public List<OrderDto> getOrdersForUser(String userEmail) {
@@ -111,22 +187,180 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * NEW: Keyset-paginated order history summaries, newest first. A blank "after" starts at the newest order.
+     */
+    public OrderSummaryPage getOrderSummaries(String userEmail, String after, int size) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<OrderSummaryDto> slice = orderRepository.findSummariesByUserId(user.getId(), OrderCursor.decode(after),
+                PageRequest.of(0, pageSize));
+
+        List<OrderSummaryDto> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? OrderCursor.encode(content.get(content.size() - 1).getId())
+                : null;
+        return new OrderSummaryPage(content, nextCursor, slice.hasNext());
+    }
+
+    /**
+     * NEW: One of the user's orders with its items. Other users' orders are reported as not found.
+     */
+    public OrderDto getOrderForUser(Long orderId, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        return orderRepository.findByIdAndUser_Id(orderId, user.getId())
+                .map(this::mapEntityToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+    }
+
+    /**
+     * NEW: Keyset-paginated admin listing, newest first, filtered server-side. Null filters are ignored.
+     */
+    public AdminOrderPage getAdminOrders(String status, LocalDateTime from, LocalDateTime to, Long userId, String email,
+                                         String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<AdminOrderSummaryDto> slice = orderRepository.findAdminSummaries(blankToNull(status), from, to, userId,
+                blankToNull(email), OrderCursor.decode(after), PageRequest.of(0, pageSize));
+
+        List<AdminOrderSummaryDto> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? OrderCursor.encode(content.get(content.size() - 1).getId())
+                : null;
+        return new AdminOrderPage(content, nextCursor, slice.hasNext());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
     public List<OrderDto> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
+        List<Order> orders = orderRepository.findAllWithItems();
         return orders.stream()
                 .map(this::mapEntityToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * UPDATED: Locks the order row (like bulkUpdateStatus) before reading its status, and applies only
+     * moves allowed by OrderStatus; setting the status it already has changes nothing.
+     */
     @Transactional
     public OrderDto updateOrderStatus(Long orderId, String status) {
+        OrderStatus target = OrderStatus.fromParam(status);
+        List<OrderRepository.StatusView> locked = orderRepository.lockStatusesByIdIn(List.of(orderId));
+        if (locked.isEmpty()) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        String current = locked.get(0).getStatus();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-        order.setStatus(status);
+        if (target.name().equals(current)) {
+            return mapEntityToDto(order);
+        }
+        if (!target.allowedFromNames().contains(current)) {
+            throw new BadRequestException("Cannot move order from " + current + " to " + target);
+        }
+        // NEW: A cancellation takes the order out of the sales rollups.
+        boolean wasSale = OrderStatus.countsAsSale(current);
+        if (wasSale != OrderStatus.countsAsSale(target.name())) {
+            salesRollups.record(saleLines(order), wasSale ? -1 : 1);
+        }
+        outbox.publish(OrderEvents.ORDER_STATUS_CHANGED, orderId,
+                new OrderEvents.StatusChanged(target.name(), List.of(orderId), 1));
+        order.setStatus(target.name());
         Order updatedOrder = orderRepository.save(order);
         return mapEntityToDto(updatedOrder);
     }
 
+    private static List<SaleLine> saleLines(Order order) {
+        List<SaleLine> lines = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = item.getProduct();
+            lines.add(new SaleLine(order.getId(), order.getOrderDate(), product.getId(), product.getBrand().getId(),
+                    product.getCategory().getId(), item.getQuantity(), item.getPrice()));
+        }
+        return lines;
+    }
+
+    /**
+     * NEW: Moves the listed orders, or up to MAX_BULK_IDS orders matching the filter, to one status: their
+     * ids and statuses are read with a row lock, then one set-based UPDATE moves them. Only moves allowed
+     * by OrderStatus are applied; nothing is loaded or mapped back.
+     */
+    @Transactional
+    public BulkStatusUpdateResult bulkUpdateStatus(BulkStatusUpdateRequest request) {
+        OrderStatus target = OrderStatus.fromParam(request.getStatus());
+        List<String> allowedFrom = target.allowedFromNames();
+        if (allowedFrom.isEmpty()) {
+            throw new BadRequestException("Orders cannot be moved to " + target);
+        }
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new BadRequestException("Give either orderIds or filter");
+        }
+        // Orders leaving these statuses move into or out of the sales, so the rollups follow them.
+        List<String> changesSales = allowedFrom.stream()
+                .filter(from -> OrderStatus.countsAsSale(from) != OrderStatus.countsAsSale(target.name()))
+                .toList();
+        if (!byIds) {
+            BulkStatusUpdateRequest.Filter filter = request.getFilter();
+            String filterStatus = blankToNull(filter.getStatus());
+            String email = blankToNull(filter.getEmail());
+            // One capped page per call, lowest ids first; the caller repeats while hasMore is set.
+            List<OrderRepository.StatusView> page = orderRepository.lockMovableMatching(allowedFrom, filterStatus,
+                    filter.getFrom(), filter.getTo(), filter.getUserId(), email, PageRequest.of(0, MAX_BULK_IDS + 1));
+            Map<Long, String> moving = new LinkedHashMap<>();
+            page.stream().limit(MAX_BULK_IDS).forEach(view -> moving.put(view.getId(), view.getStatus()));
+            long skipped = orderRepository.countBlockedMatching(target.name(), allowedFrom, filterStatus,
+                    filter.getFrom(), filter.getTo(), filter.getUserId(), email);
+            int updated = moveLocked(target, moving, changesSales);
+            return new BulkStatusUpdateResult(target.name(), updated, (int) skipped, List.of(), page.size() > MAX_BULK_IDS);
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(request.getOrderIds());
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new BadRequestException("At most " + MAX_BULK_IDS + " order ids per request");
+        }
+        Map<Long, String> current = new HashMap<>();
+        orderRepository.lockStatusesByIdIn(ids).forEach(view -> current.put(view.getId(), view.getStatus()));
+        List<BulkStatusUpdateResult.Failure> failures = new ArrayList<>();
+        Map<Long, String> moving = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String status = current.get(id);
+            if (status == null) {
+                failures.add(new BulkStatusUpdateResult.Failure(id, null, "Order not found"));
+            } else if (allowedFrom.contains(status)) {
+                moving.put(id, status);
+            } else if (!status.equals(target.name())) {
+                failures.add(new BulkStatusUpdateResult.Failure(id, status, "Cannot move from " + status + " to " + target));
+            }
+        }
+        int updated = moveLocked(target, moving, changesSales);
+        return new BulkStatusUpdateResult(target.name(), updated, 0, failures, false);
+    }
+
+    // moving maps order id -> current status of orders this transaction has locked, so the UPDATE moves
+    // exactly these and the rollups follow exactly the ones leaving a status in changesSales.
+    private int moveLocked(OrderStatus target, Map<Long, String> moving, List<String> changesSales) {
+        if (moving.isEmpty()) {
+            return 0;
+        }
+        List<Long> salesChanging = moving.entrySet().stream()
+                .filter(entry -> changesSales.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!salesChanging.isEmpty()) {
+            salesRollups.record(orderRepository.findSaleLinesByIdIn(salesChanging),
+                    OrderStatus.countsAsSale(target.name()) ? 1 : -1);
+        }
+        List<Long> ids = new ArrayList<>(moving.keySet());
+        int updated = orderRepository.updateStatusByIdIn(ids, target.name(), target.allowedFromNames());
+        outbox.publish(OrderEvents.ORDER_STATUS_CHANGED, null, new OrderEvents.StatusChanged(target.name(), ids, updated));
+        return updated;
+    }
+
     private OrderDto mapEntityToDto(Order order) {
         OrderDto orderDto = new OrderDto();
         orderDto.setId(order.getId());
@@ -0,0 +1,54 @@
+// src/main/java/com/sky/Nykaa/feature_order/OrderStatus.java
+package com.sky.Nykaa.feature_order;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The statuses an order moves through (orders.status holds the names) and which moves are allowed:
+ * PENDING -> PROCESSING -> SHIPPED -> DELIVERED, with CANCELLED possible until the order ships.
+ */
+public enum OrderStatus {
+    PENDING,
+    PROCESSING,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    /**
+     * Statuses an order may be in to be moved to this one.
+     */
+    public Set<OrderStatus> allowedFrom() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case PROCESSING -> EnumSet.of(PENDING);
+            case SHIPPED -> EnumSet.of(PENDING, PROCESSING);
+            case DELIVERED -> EnumSet.of(SHIPPED);
+            case CANCELLED -> EnumSet.of(PENDING, PROCESSING);
+        };
+    }
+
+    List<String> allowedFromNames() {
+        return allowedFrom().stream().map(Enum::name).toList();
+    }
+
+    /**
+     * Whether an order in this status counts towards sales. Statuses outside this enum (older rows may
+     * hold other text) count too.
+     */
+    public static boolean countsAsSale(String status) {
+        return !CANCELLED.name().equals(status);
+    }
+
+    public static OrderStatus fromParam(String param) {
+        try {
+            return OrderStatus.valueOf(param.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Unknown order status: " + param);
+        }
+    }
+}
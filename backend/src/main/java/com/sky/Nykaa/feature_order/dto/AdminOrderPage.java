@@ -0,0 +1,15 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One slice of the cursor-paginated admin order listing, newest first. Pass nextCursor back as "after".
+@Data
+@AllArgsConstructor
+public class AdminOrderPage {
+    private List<AdminOrderSummaryDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
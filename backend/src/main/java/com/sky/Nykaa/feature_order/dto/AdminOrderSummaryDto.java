@@ -0,0 +1,24 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of the admin order listing. Filled by a constructor expression in OrderRepository.findAdminSummaries.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminOrderSummaryDto {
+    private Long id;
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private Long itemCount;
+    private Long userId;
+    private String userEmail;
+    private String userFirstName;
+    private String userLastName;
+}
@@ -0,0 +1,29 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves a set of orders to one status: either the listed orderIds or every order matching filter.
+@Data
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty
+    private String status;
+
+    private List<Long> orderIds;
+
+    private Filter filter;
+
+    // Same filters as the admin listing; all optional. from is inclusive and to exclusive.
+    @Data
+    public static class Filter {
+        private String status;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private Long userId;
+        private String email;
+    }
+}
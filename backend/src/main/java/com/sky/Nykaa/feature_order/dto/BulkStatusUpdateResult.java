@@ -0,0 +1,28 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Outcome of a bulk status update. failures lists the requested ids that were not moved (id mode only);
+// skipped counts the orders a filter matched that could not be moved to the new status; hasMore says a
+// filter matched more movable orders than one call moves.
+@Data
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+    private String status;
+    private int updated;
+    private int skipped;
+    private List<Failure> failures;
+    private boolean hasMore;
+
+    @Data
+    @AllArgsConstructor
+    public static class Failure {
+        private Long orderId;
+        // null when the order does not exist
+        private String currentStatus;
+        private String reason;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// State of an order submitted with "Prefer: respond-async". orderId is set once status is PLACED,
+// message once it is REJECTED.
+@Data
+@AllArgsConstructor
+public class OrderIntakeDto {
+    private String ticketId;
+    private String status; // QUEUED, PLACED or REJECTED
+    private Long orderId;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of the order history list; the full order is fetched from GET /api/orders/{id}.
+// Filled by a constructor expression in OrderRepository.findSummariesByUserId.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    private Long id;
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private Long itemCount;     // units across all lines
+    private String thumbnailUrl; // image of the first product ordered
+}
@@ -0,0 +1,15 @@
+package com.sky.Nykaa.feature_order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One slice of the cursor-paginated order history, newest first. Pass nextCursor back as "after".
+@Data
+@AllArgsConstructor
+public class OrderSummaryPage {
+    private List<OrderSummaryDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,10 +1,14 @@
 package com.sky.Nykaa.feature_payment;
 
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.razorpay.Order;
 import com.razorpay.RazorpayException;
+import com.sky.Nykaa.common.IdempotencyStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -17,15 +21,26 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     /**
      * FIXED: This endpoint now returns a proper JSON object (as a Map)
      * instead of a plain string. This makes the API response consistent.
+     * NEW: Also holds the stock of the user's cart until the order is placed or the hold expires.
      */
     @PostMapping("/create-order")
-    public ResponseEntity<Map<String, Object>> createOrder(@RequestBody Map<String, Object> data) throws RazorpayException {
-        BigDecimal amount = new BigDecimal(data.get("amount").toString());
-        Order order = paymentService.createRazorpayOrder(amount);
-        // The order.toMap() method provides a clean JSON representation.
-        return ResponseEntity.ok(order.toJson().toMap());
+    public ResponseEntity<Map<String, Object>> createOrder(@RequestBody Map<String, Object> data,
+                                                           @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                           @AuthenticationPrincipal UserDetails userDetails) throws RazorpayException {
+        String userEmail = userDetails.getUsername();
+        // NEW: A retry with the same Idempotency-Key gets the first Razorpay order instead of creating another.
+        return idempotencyStore.execute(idempotencyKey, "POST /api/payment/create-order " + userEmail, data,
+                new TypeReference<>() {}, () -> {
+                    BigDecimal amount = new BigDecimal(data.get("amount").toString());
+                    Order order = paymentService.createRazorpayOrderHoldingCart(amount, userEmail);
+                    // The order.toMap() method provides a clean JSON representation.
+                    return ResponseEntity.ok(order.toJson().toMap());
+                });
     }
 }
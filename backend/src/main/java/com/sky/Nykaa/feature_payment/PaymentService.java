@@ -4,12 +4,16 @@ package com.sky.Nykaa.feature_payment;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import com.sky.Nykaa.feature_cart.CartService;
+import com.sky.Nykaa.feature_product.StockLedger;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Map;
 
 @Service
 public class PaymentService {
@@ -21,6 +25,30 @@ public class PaymentService {
     @Value("${razorpay.key.secret}")
     private String keySecret;
 
+    @Autowired private CartService cartService;
+    @Autowired private StockLedger stockLedger;
+
+    /**
+     * NEW: Holds the stock of the user's cart, then creates the Razorpay order. The hold is keyed
+     * by the Razorpay order id, which the client sends back with POST /api/orders to confirm it.
+     */
+    public Order createRazorpayOrderHoldingCart(BigDecimal amount, String userEmail) throws RazorpayException {
+        Map<Long, Integer> quantities = cartService.getQuantities(userEmail);
+        StockLedger.Hold hold = quantities.isEmpty() ? null : stockLedger.hold(userEmail, quantities);
+        try {
+            Order order = createRazorpayOrder(amount);
+            if (hold != null) {
+                stockLedger.attach(hold, order.get("id"));
+            }
+            return order;
+        } catch (RazorpayException | RuntimeException e) {
+            if (hold != null) {
+                stockLedger.release(hold);
+            }
+            throw e;
+        }
+    }
+
     /**
      * Creates a new order on the Razorpay servers.
      * @param amount The total amount of the order.
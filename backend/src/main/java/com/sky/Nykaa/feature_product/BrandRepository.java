@@ -1,5 +1,6 @@
 package com.sky.Nykaa.feature_product;
 
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -14,5 +15,10 @@ public interface BrandRepository extends JpaRepository<Brand, Long> {
     // NEW: JPQL query to select all unique brand names, sorted alphabetically.
     @Query("SELECT DISTINCT b.name FROM Brand b ORDER BY b.name ASC")
     List<String> findAllBrandNames();
+
+    // Every brand with its product count in one grouped query, for the taxonomy snapshot.
+    @Query("SELECT new com.sky.Nykaa.feature_product.dto.TaxonomyDto(b.id, b.name, b.image, COUNT(p)) " +
+            "FROM Brand b LEFT JOIN b.products p GROUP BY b.id, b.name, b.image ORDER BY b.name ASC")
+    List<TaxonomyDto> findAllWithProductCounts();
 }
 
@@ -0,0 +1,200 @@
+// src/main/java/com/sky/Nykaa/feature_product/CatalogCacheFilter.java
+package com.sky.Nykaa.feature_product;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP caching for the public catalog reads (/api/products/**, /api/categories, /api/brands),
+ * except the single-product detail. Successful bodies are kept as serialized bytes (plus a
+ * gzipped copy) keyed by path and normalized query string, so repeat requests skip the database
+ * and Jackson entirely until the next catalog write, or MAX_AGE_MS at most: orders change stock
+ * without a catalog write. Each cached body has its own strong ETag (catalog version plus when it
+ * was built); If-None-Match is answered with 304 only when it names the body currently cached for
+ * the request. Page sizes are clamped like the controller clamps them before keying.
+ */
+@Component
+public class CatalogCacheFilter extends OncePerRequestFilter {
+
+    private static final int MAX_ENTRIES = 2_000;
+    private static final int MIN_GZIP_BYTES = 1_024;
+    // How stale the stock levels in a cached body may get.
+    static final long MAX_AGE_MS = 30_000;
+    private static final Pattern DETAIL_PATH = Pattern.compile("/api/products/\\d+");
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private final Map<String, CachedResponse> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        if (path.equals("/api/products/export")) {
+            return true; // streamed, admin-only and far too large to cache
+        }
+        if (DETAIL_PATH.matcher(path).matches()) {
+            return true; // one statement, and the place to read live stock, which orders change without a catalog write
+        }
+        if (path.equals("/api/products/suggest")) {
+            return true; // answered from memory; ProductSuggester publishes on its own schedule, not with CatalogVersion
+        }
+        return !(path.equals("/api/products") || path.startsWith("/api/products/")
+                || path.equals("/api/categories") || path.equals("/api/brands"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long version = catalogVersion.current();
+        long now = System.currentTimeMillis();
+        boolean gzip = acceptsGzip(request);
+
+        // Only the body cached for this exact request vouches for an ETag; anything else goes to the controller.
+        String key = cacheKey(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.version == version && now - cached.createdAt < MAX_AGE_MS) {
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                writeCacheHeaders(response, cached.etag(gzip));
+                return;
+            }
+            write(response, cached, gzip);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        CachedResponse fresh = new CachedResponse(version, now, wrapper.getContentType(), wrapper.getContentAsByteArray());
+        cache.put(key, fresh);
+        // The wrapper buffered the body without passing it on; write the cached copy to the real response.
+        write(response, fresh, gzip);
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, boolean gzip) throws IOException {
+        byte[] body = cached.body;
+        if (gzip && body.length >= MIN_GZIP_BYTES) {
+            body = cached.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType);
+        response.setContentLength(body.length);
+        writeCacheHeaders(response, cached.etag(gzip));
+        response.getOutputStream().write(body);
+    }
+
+    private static void writeCacheHeaders(HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static boolean matches(String ifNoneMatch, CachedResponse cached) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(cached.etag(false)) || tag.equals(cached.etag(true))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    // Path plus parameters sorted by name (and values sorted within a name), so equivalent queries share an entry.
+    private static String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> sorted = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> param : sorted.entrySet()) {
+            String[] values = param.getKey().equals("size") ? clampSizes(param.getValue()) : param.getValue().clone();
+            Arrays.sort(values);
+            key.append(separator).append(param.getKey()).append('=').append(String.join(",", values));
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    // The controllers clamp page sizes to 1..ProductService.MAX_PAGE_SIZE, so sizes beyond it share one entry.
+    private static String[] clampSizes(String[] sizes) {
+        String[] clamped = new String[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            try {
+                clamped[i] = Integer.toString(Math.max(1, Math.min(Integer.parseInt(sizes[i].trim()), ProductService.MAX_PAGE_SIZE)));
+            } catch (NumberFormatException e) {
+                clamped[i] = sizes[i]; // rejected by the controller, never cached
+            }
+        }
+        return clamped;
+    }
+
+    private static class CachedResponse {
+        final long version;
+        final long createdAt;
+        final String contentType;
+        final byte[] body;
+        private volatile byte[] gzipped;
+
+        CachedResponse(long version, long createdAt, String contentType, byte[] body) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        // Strong ETags must differ per content-coding, so the gzipped representation gets its own tag.
+        String etag(boolean gzip) {
+            return "\"c" + version + "." + createdAt + (gzip ? "-gz\"" : "\"");
+        }
+
+        byte[] gzipped() throws IOException {
+            byte[] result = gzipped;
+            if (result == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(body);
+                }
+                result = out.toByteArray();
+                gzipped = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sky.Nykaa.feature_product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// The handful of columns the in-memory catalog index needs per product.
+// Loaded with a single constructor-expression query at startup.
+@Getter
+@AllArgsConstructor
+public class CatalogEntry {
+    private Long id;
+    private BigDecimal price;
+    private String categoryName;
+    private String brandName;
+
+    public static CatalogEntry of(Product product) {
+        return new CatalogEntry(product.getId(), product.getPrice(),
+                product.getCategory().getName(), product.getBrand().getName());
+    }
+}
@@ -0,0 +1,27 @@
+package com.sky.Nykaa.feature_product;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of everything the public catalog endpoints return.
+ * Bumped by every product, category and brand write; CatalogCacheFilter derives
+ * ETags from it and drops cached responses whenever it moves. Placing an order does not
+ * bump it; cached listings are instead rebuilt after CatalogCacheFilter.MAX_AGE_MS, so their
+ * stock levels are never older than that, and the product detail is not cached at all.
+ * Seeded from the clock so that versions handed out before a restart are never reused.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+}
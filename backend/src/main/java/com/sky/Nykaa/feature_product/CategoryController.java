@@ -1,5 +1,6 @@
 package com.sky.Nykaa.feature_product;
 
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +17,7 @@ public class CategoryController {
     private ProductService productService;
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<TaxonomyDto>> getAllCategories() {
         return ResponseEntity.ok(productService.getAllCategories());
     }
 
@@ -1,5 +1,6 @@
 package com.sky.Nykaa.feature_product;
 
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -14,6 +15,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT DISTINCT c.name FROM Category c ORDER BY c.name ASC")
     List<String> findAllCategoryNames();
 
+    // Every category with its product count in one grouped query, for the taxonomy snapshot.
+    @Query("SELECT new com.sky.Nykaa.feature_product.dto.TaxonomyDto(c.id, c.name, c.image, COUNT(p)) " +
+            "FROM Category c LEFT JOIN c.products p GROUP BY c.id, c.name, c.image ORDER BY c.name ASC")
+    List<TaxonomyDto> findAllWithProductCounts();
 }
 
 
@@ -0,0 +1,480 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductCatalogIndex.java
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.feature_product.dto.ProductFacetsDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process index over the filterable product attributes (category, brand, price).
+ * Every product gets a dense ordinal; categories and brands map to bitsets over those
+ * ordinals, and a price-sorted ordinal array answers range filters with two binary searches.
+ * The storefront listing filters here and only goes to the database for the rows of the page.
+ */
+@Component
+public class ProductCatalogIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Lower bounds (in paise) of the price facet buckets; the last bucket is open-ended.
+    private static final long[] PRICE_BUCKETS = {0L, 500_00L, 1000_00L, 2000_00L, 5000_00L};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Column-wise storage, indexed by ordinal.
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY]; // in paise
+    private String[] categoryNames = new String[INITIAL_CAPACITY];
+    private String[] brandNames = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> byBrand = new HashMap<>();
+
+    // Live ordinals sorted by price (ties keep id order). Rebuilt lazily after writes.
+    private int[] priceOrder = new int[0];
+    private boolean priceOrderDirty;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(productRepository.findAllCatalogEntries());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the whole index. Entries are expected in ascending id order so that
+     * ordinal order matches the listing order.
+     */
+    public void rebuild(List<CatalogEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            rebuildLocked(entries);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a new product or re-indexes an existing one in place.
+     */
+    public void upsert(CatalogEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(entry.getId());
+            if (ordinal == null && size > 0 && entry.getId() < ids[size - 1]) {
+                // Concurrent creates can arrive out of id order; re-pack so ordinals stay sorted by id.
+                List<CatalogEntry> entries = liveEntries();
+                entries.add(entry);
+                entries.sort(Comparator.comparing(CatalogEntry::getId));
+                rebuildLocked(entries);
+                return;
+            } else if (ordinal == null) {
+                append(entry);
+            } else {
+                byCategory.get(categoryNames[ordinal]).clear(ordinal);
+                byBrand.get(brandNames[ordinal]).clear(ordinal);
+                write(ordinal, entry);
+            }
+            priceOrderDirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal == null) {
+                return;
+            }
+            live.clear(ordinal);
+            byCategory.get(categoryNames[ordinal]).clear(ordinal);
+            byBrand.get(brandNames[ordinal]).clear(ordinal);
+            // priceOrder may keep the dead ordinal; range lookups are always intersected with live.
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameCategory(String oldName, String newName) {
+        rename(byCategory, categoryNames, oldName, newName);
+    }
+
+    public void renameBrand(String oldName, String newName) {
+        rename(byBrand, brandNames, oldName, newName);
+    }
+
+    /**
+     * Returns the ids of one page of matching products in the requested order plus the total match count.
+     * Null filters are ignored, exactly like the JPQL query in ProductRepository.findByFilters.
+     */
+    public Hits query(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                      ProductSort sort, long offset, int limit) {
+        lockForRead(needsPriceOrder(minPrice, maxPrice, sort));
+        try {
+            BitSet matches = matches(categories, brands, minPrice, maxPrice);
+            List<Long> pageIds = collect(matches, sort, firstPosition(sort), offset, limit);
+            return new Hits(pageIds, matches.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of query(): returns up to limit ids that come strictly after the cursor
+     * (or from the start when cursor is null). No total is computed.
+     */
+    public List<Long> seek(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                           ProductSort sort, ProductCursor cursor, int limit) {
+        lockForRead(needsPriceOrder(minPrice, maxPrice, sort));
+        try {
+            BitSet matches = matches(categories, brands, minPrice, maxPrice);
+            int start = cursor == null ? firstPosition(sort) : positionAfter(sort, cursor);
+            return collect(matches, sort, start, 0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as query(), but also counts categories, brands and price buckets while the filter
+     * bitsets are at hand. Each facet ignores its own filter (disjunctive faceting).
+     */
+    public FacetedHits queryWithFacets(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                                       ProductSort sort, long offset, int limit) {
+        lockForRead(true);
+        try {
+            BitSet categoryBits = categories == null ? null : union(byCategory, categories);
+            BitSet brandBits = brands == null ? null : union(byBrand, brands);
+            BitSet priceBits = minPrice == null && maxPrice == null ? null : priceRange(minPrice, maxPrice);
+
+            BitSet matches = intersect(categoryBits, brandBits, priceBits);
+            Hits hits = new Hits(collect(matches, sort, firstPosition(sort), offset, limit), matches.cardinality());
+
+            ProductFacetsDto facets = new ProductFacetsDto(
+                    count(byCategory, intersect(null, brandBits, priceBits)),
+                    count(byBrand, intersect(categoryBits, null, priceBits)),
+                    priceBuckets(intersect(categoryBits, brandBits, null)));
+            return new FacetedHits(hits, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs fn with a test of whether a product passes the filters. The test is only valid while fn
+     * runs; it lets full-text search drop non-matching candidates as it scores them.
+     */
+    public <T> T withFilter(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                            Function<LongPredicate, T> fn) {
+        lockForRead(minPrice != null || maxPrice != null);
+        try {
+            BitSet matches = matches(categories, brands, minPrice, maxPrice);
+            return fn.apply(id -> {
+                Integer ordinal = ordinals.get(id);
+                return ordinal != null && matches.get(ordinal);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet matches(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice) {
+        return intersect(
+                categories == null ? null : union(byCategory, categories),
+                brands == null ? null : union(byBrand, brands),
+                minPrice == null && maxPrice == null ? null : priceRange(minPrice, maxPrice));
+    }
+
+    // Live products restricted by every non-null filter bitset.
+    private BitSet intersect(BitSet categoryBits, BitSet brandBits, BitSet priceBits) {
+        BitSet result = (BitSet) live.clone();
+        if (categoryBits != null) {
+            result.and(categoryBits);
+        }
+        if (brandBits != null) {
+            result.and(brandBits);
+        }
+        if (priceBits != null) {
+            result.and(priceBits);
+        }
+        return result;
+    }
+
+    private static Map<String, Long> count(Map<String, BitSet> postings, BitSet base) {
+        Map<String, Long> counts = new TreeMap<>();
+        BitSet scratch = new BitSet();
+        postings.forEach((name, bits) -> {
+            scratch.clear();
+            scratch.or(bits);
+            scratch.and(base);
+            int n = scratch.cardinality();
+            if (n > 0) {
+                counts.put(name, (long) n);
+            }
+        });
+        return counts;
+    }
+
+    private List<ProductFacetsDto.PriceBucket> priceBuckets(BitSet base) {
+        long[] counts = new long[PRICE_BUCKETS.length];
+        for (int o = base.nextSetBit(0); o >= 0; o = base.nextSetBit(o + 1)) {
+            int bucket = PRICE_BUCKETS.length - 1;
+            while (bucket > 0 && prices[o] < PRICE_BUCKETS[bucket]) {
+                bucket--;
+            }
+            counts[bucket]++;
+        }
+        List<ProductFacetsDto.PriceBucket> buckets = new ArrayList<>(PRICE_BUCKETS.length);
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            BigDecimal max = i + 1 < PRICE_BUCKETS.length ? BigDecimal.valueOf(PRICE_BUCKETS[i + 1], 2) : null;
+            buckets.add(new ProductFacetsDto.PriceBucket(BigDecimal.valueOf(PRICE_BUCKETS[i], 2), max, counts[i]));
+        }
+        return buckets;
+    }
+
+    // Walks the matches in sort order from the given position (an ordinal for ID, an index into priceOrder otherwise).
+    private List<Long> collect(BitSet matches, ProductSort sort, int start, long skip, int limit) {
+        List<Long> result = new ArrayList<>(Math.min(limit, INITIAL_CAPACITY));
+        long skipped = 0;
+        switch (sort) {
+            case ID -> {
+                for (int o = matches.nextSetBit(start); o >= 0 && result.size() < limit; o = matches.nextSetBit(o + 1)) {
+                    if (skipped++ >= skip) {
+                        result.add(ids[o]);
+                    }
+                }
+            }
+            case PRICE_ASC -> {
+                for (int i = start; i < priceOrder.length && result.size() < limit; i++) {
+                    int o = priceOrder[i];
+                    if (matches.get(o) && skipped++ >= skip) {
+                        result.add(ids[o]);
+                    }
+                }
+            }
+            case PRICE_DESC -> {
+                for (int i = start; i >= 0 && result.size() < limit; i--) {
+                    int o = priceOrder[i];
+                    if (matches.get(o) && skipped++ >= skip) {
+                        result.add(ids[o]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private int firstPosition(ProductSort sort) {
+        return sort == ProductSort.PRICE_DESC ? priceOrder.length - 1 : 0;
+    }
+
+    private int positionAfter(ProductSort sort, ProductCursor cursor) {
+        return switch (sort) {
+            case ID -> firstOrdinalAbove(cursor.getLastId());
+            case PRICE_ASC -> firstAtLeast(cursor.getPricePaise(), cursor.getLastId() + 1);
+            case PRICE_DESC -> firstAtLeast(cursor.getPricePaise(), cursor.getLastId()) - 1;
+        };
+    }
+
+    private static boolean needsPriceOrder(BigDecimal minPrice, BigDecimal maxPrice, ProductSort sort) {
+        return minPrice != null || maxPrice != null || sort != ProductSort.ID;
+    }
+
+    // Takes the read lock, first rebuilding the price order under the write lock if a range query needs it.
+    private void lockForRead(boolean needsPriceOrder) {
+        lock.readLock().lock();
+        if (needsPriceOrder && priceOrderDirty) {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                if (priceOrderDirty) {
+                    rebuildPriceOrder();
+                }
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void rebuildLocked(List<CatalogEntry> entries) {
+        int capacity = Math.max(INITIAL_CAPACITY, entries.size());
+        ids = new long[capacity];
+        prices = new long[capacity];
+        categoryNames = new String[capacity];
+        brandNames = new String[capacity];
+        size = 0;
+        live.clear();
+        ordinals.clear();
+        byCategory.clear();
+        byBrand.clear();
+        for (CatalogEntry entry : entries) {
+            append(entry);
+        }
+        rebuildPriceOrder();
+    }
+
+    private List<CatalogEntry> liveEntries() {
+        List<CatalogEntry> entries = new ArrayList<>(ordinals.size() + 1);
+        for (int o = live.nextSetBit(0); o >= 0; o = live.nextSetBit(o + 1)) {
+            entries.add(new CatalogEntry(ids[o], BigDecimal.valueOf(prices[o], 2), categoryNames[o], brandNames[o]));
+        }
+        return entries;
+    }
+
+    private void append(CatalogEntry entry) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categoryNames = Arrays.copyOf(categoryNames, capacity);
+            brandNames = Arrays.copyOf(brandNames, capacity);
+        }
+        int ordinal = size++;
+        ordinals.put(entry.getId(), ordinal);
+        live.set(ordinal);
+        write(ordinal, entry);
+    }
+
+    private void write(int ordinal, CatalogEntry entry) {
+        ids[ordinal] = entry.getId();
+        prices[ordinal] = toPaise(entry.getPrice(), RoundingMode.HALF_UP);
+        categoryNames[ordinal] = entry.getCategoryName();
+        brandNames[ordinal] = entry.getBrandName();
+        byCategory.computeIfAbsent(entry.getCategoryName(), k -> new BitSet()).set(ordinal);
+        byBrand.computeIfAbsent(entry.getBrandName(), k -> new BitSet()).set(ordinal);
+    }
+
+    private void rename(Map<String, BitSet> postings, String[] names, String oldName, String newName) {
+        if (oldName == null || oldName.equals(newName)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            BitSet bits = postings.remove(oldName);
+            if (bits == null) {
+                return;
+            }
+            // The new name may already have products of its own; both sets now carry it.
+            postings.merge(newName, bits, (existing, renamed) -> {
+                existing.or(renamed);
+                return existing;
+            });
+            for (int o = bits.nextSetBit(0); o >= 0; o = bits.nextSetBit(o + 1)) {
+                names[o] = newName;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildPriceOrder() {
+        priceOrder = live.stream()
+                .boxed()
+                .sorted(Comparator.comparingLong(o -> prices[o]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        priceOrderDirty = false;
+    }
+
+    private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        int from = minPrice == null ? 0 : firstAtLeast(toPaise(minPrice, RoundingMode.CEILING), Long.MIN_VALUE);
+        int to = maxPrice == null ? priceOrder.length : firstAtLeast(toPaise(maxPrice, RoundingMode.FLOOR) + 1, Long.MIN_VALUE);
+        BitSet bits = new BitSet(size);
+        for (int i = from; i < to; i++) {
+            bits.set(priceOrder[i]);
+        }
+        return bits;
+    }
+
+    // Binary search for the first position in priceOrder whose (price, id) is >= the given key.
+    private int firstAtLeast(long paise, long id) {
+        int lo = 0;
+        int hi = priceOrder.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int o = priceOrder[mid];
+            if (prices[o] < paise || (prices[o] == paise && ids[o] < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Binary search for the first ordinal whose id is greater than the given id (ids ascend with ordinals).
+    private int firstOrdinalAbove(long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ids[mid] <= id) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static BitSet union(Map<String, BitSet> postings, List<String> keys) {
+        BitSet result = new BitSet();
+        for (String key : keys) {
+            BitSet bits = postings.get(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static long toPaise(BigDecimal amount, RoundingMode mode) {
+        return amount.movePointRight(2).setScale(0, mode).longValue();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hits {
+        private final List<Long> ids;
+        private final long total;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class FacetedHits {
+        private final Hits hits;
+        private final ProductFacetsDto facets;
+    }
+}
@@ -2,18 +2,29 @@
 package com.sky.Nykaa.feature_product;
 
 import com.sky.Nykaa.feature_product.dto.CreateProductRequest;
+import com.sky.Nykaa.feature_product.dto.FacetedProductPage;
+import com.sky.Nykaa.feature_product.dto.ImportResultDto;
+import com.sky.Nykaa.feature_product.dto.ProductCursorPage;
 import com.sky.Nykaa.feature_product.dto.ProductDto;
+import com.sky.Nykaa.feature_product.dto.SuggestionDto;
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -22,23 +33,99 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
     /**
      * Handles GET requests to fetch products with optional filtering and pagination.
      * Example URL: /api/products?page=0&size=12&categories=Makeup&brands=Maybelline&minPrice=500&maxPrice=2000
+     * Optional sort: id (default), price_asc or price_desc. size is clamped to 1..100.
      */
     @GetMapping
     public ResponseEntity<Page<ProductDto>> getAllProducts(
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) List<String> brands,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+        Pageable pageable = PageRequest.of(page, ProductService.clampPageSize(size));
+        Page<ProductDto> products = productService.getAllProducts(categories, brands, minPrice, maxPrice,
+                ProductSort.fromParam(sort), pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * NEW: Listing plus facet counts for the sidebar, selected by facets=true.
+     * Example URL: /api/products?facets=true&page=0&size=12&brands=Maybelline
+     */
+    @GetMapping(params = {"facets=true", "!after"})
+    public ResponseEntity<FacetedProductPage> getAllProductsWithFacets(
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) List<String> brands,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+        Pageable pageable = PageRequest.of(page, ProductService.clampPageSize(size));
+        FacetedProductPage products = productService.getAllProductsWithFacets(categories, brands, minPrice, maxPrice,
+                ProductSort.fromParam(sort), pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * NEW: Cursor (keyset) mode of the listing, selected by the presence of the "after" parameter.
+     * Start with an empty value and pass back nextCursor from each response; no total count is computed.
+     * size is clamped to 1..100.
+     * Example URL: /api/products?after=&size=12&categories=Makeup&sort=price_asc
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<ProductCursorPage> getProductsAfter(
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) List<String> brands,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "12") int size) {
+        ProductCursorPage products = productService.getProductsAfter(categories, brands, minPrice, maxPrice,
+                ProductSort.fromParam(sort), after, size);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * NEW: Full-text product search, ranked by relevance and combinable with the listing filters.
+     * Example URL: /api/products/search?q=matte+lipstick&brands=Maybelline&page=0&size=12
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDto>> searchProducts(
+            @RequestParam("q") String query,
             @RequestParam(required = false) List<String> categories,
             @RequestParam(required = false) List<String> brands,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getAllProducts(categories, brands, minPrice, maxPrice, pageable);
+        Page<ProductDto> products = productService.searchProducts(query, categories, brands, minPrice, maxPrice,
+                PageRequest.of(page, ProductService.clampPageSize(size)));
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * NEW: Autocomplete suggestions for the search box, ranked by popularity.
+     * Example URL: /api/products/suggest?prefix=mayb&limit=8
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
+    }
+
     /**
      * Handles GET requests for a single product by its ID.
      */
@@ -59,18 +146,62 @@ public class ProductController {
     }
 
     /**
-     * Handles GET requests to fetch all unique category names for the filter sidebar.
+     * NEW: Bulk import from a CSV (with header row) or NDJSON request body. (Admin only)
+     * Fields: name, description, price, imageUrl, stockQuantity, category, brand (by name).
+     * Invalid rows are skipped and listed in the response.
+     */
+    @PostMapping(value = "/import", consumes = {ProductImportService.CSV, ProductImportService.NDJSON, "application/ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResultDto> importProducts(InputStream body,
+                                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return ResponseEntity.ok(productImportService.importProducts(body, contentType));
+    }
+
+    /**
+     * NEW: Streams the whole catalog as NDJSON (default) or CSV for external feeds. (Admin only)
+     * updatedSince (ISO date-time) limits the dump to products changed since then.
+     * The body is gzipped when the client sends Accept-Encoding: gzip.
+     * Example URL: /api/products/export?format=csv&updatedSince=2025-01-01T00:00:00
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductExportService.Format exportFormat = ProductExportService.Format.fromParam(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                productExportService.export(exportFormat, updatedSince, gzipOut);
+                gzipOut.finish();
+            } else {
+                productExportService.export(exportFormat, updatedSince, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Handles GET requests to fetch all categories (id, name, image, product count) for the filter sidebar.
      */
     @GetMapping("/categories")
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<TaxonomyDto>> getAllCategories() {
         return ResponseEntity.ok(productService.getAllCategories());
     }
 
     /**
-     * Handles GET requests to fetch all unique brand names for the filter sidebar.
+     * Handles GET requests to fetch all brands (id, name, image, product count) for the filter sidebar.
      */
     @GetMapping("/brands")
-    public ResponseEntity<List<Brand>> getAllBrands() {
+    public ResponseEntity<List<TaxonomyDto>> getAllBrands() {
         return ResponseEntity.ok(productService.getAllBrands());
     }
 
@@ -0,0 +1,54 @@
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last product a client has seen in a keyset-paginated listing.
+ * Serialized as an opaque url-safe token of the form "sort|pricePaise|id".
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+    private final ProductSort sort;
+    private final long pricePaise;
+    private final long lastId;
+
+    public BigDecimal getPrice() {
+        return BigDecimal.valueOf(pricePaise, 2);
+    }
+
+    public static ProductCursor after(ProductSort sort, BigDecimal price, long lastId) {
+        return new ProductCursor(sort, price.movePointRight(2).longValue(), lastId);
+    }
+
+    public String encode() {
+        String raw = sort.getParam() + "|" + pricePaise + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by encode(). A blank token means "start from the beginning" and yields null.
+     */
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            ProductSort sort = ProductSort.fromParam(parts[0]);
+            if (sort != expectedSort) {
+                throw new BadRequestException("Cursor was issued for sort " + sort.getParam());
+            }
+            return new ProductCursor(sort, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
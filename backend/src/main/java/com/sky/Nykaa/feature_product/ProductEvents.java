@@ -0,0 +1,43 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductEvents.java
+package com.sky.Nykaa.feature_product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Outbox event types published for catalog changes, with their payloads. Stock taken by orders
+ * is part of OrderEvents.ORDER_PLACED.
+ */
+public final class ProductEvents {
+
+    public static final String PRODUCT_CHANGED = "PRODUCT_CHANGED";
+    public static final String PRODUCT_DELETED = "PRODUCT_DELETED";
+    public static final String PRODUCTS_IMPORTED = "PRODUCTS_IMPORTED";
+
+    private ProductEvents() {
+    }
+
+    // A product was created or edited; the values it has now.
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Changed {
+        private Long productId;
+        private String name;
+        private BigDecimal price;
+        private Integer stockQuantity;
+        private Long categoryId;
+        private Long brandId;
+    }
+
+    // A COPY chunk of the bulk import; COPY does not return the new ids.
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Imported {
+        private int rows;
+    }
+}
@@ -0,0 +1,183 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductExportService.java
+package com.sky.Nykaa.feature_product;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Full or incremental catalog dump for marketplace and search feeds. Rows are read through a
+ * forward-only cursor (read-only transaction plus fetch size, which is what makes the PostgreSQL
+ * driver stream instead of buffering the whole result) and written to the response as they arrive.
+ */
+@Service
+public class ProductExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format fromParam(String param) {
+            try {
+                return Format.valueOf(param.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new BadRequestException("Unsupported export format: " + param);
+            }
+        }
+    }
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String SELECT = "SELECT p.id, p.name, p.description, p.price, p.image_url, p.stock_quantity, " +
+            "c.name AS category_name, b.name AS brand_name, COALESCE(p.updated_at, p.created_at) AS updated_at " +
+            "FROM products p JOIN categories c ON c.id = p.category_id JOIN brands b ON b.id = p.brand_id";
+
+    // Rows written before updated_at existed only have created_at.
+    private static final String UPDATED_SINCE = " WHERE (p.updated_at >= ? OR (p.updated_at IS NULL AND p.created_at >= ?))";
+
+    private static final String CSV_HEADER = "id,name,description,price,imageUrl,stockQuantity,categoryName,brandName,updatedAt\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    public ProductExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes every product (or those changed at or after updatedSince) to out, ordered by id.
+     */
+    public void export(Format format, LocalDateTime updatedSince, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, objectMapper);
+        String sql = SELECT + (updatedSince == null ? "" : UPDATED_SINCE) + " ORDER BY p.id";
+        Object[] args = updatedSince == null ? new Object[0]
+                : new Object[]{Timestamp.valueOf(updatedSince), Timestamp.valueOf(updatedSince)};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // usually the client went away mid-download
+        }
+        rowWriter.finish();
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("name", rs.getString("name"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeNumberField("price", rs.getBigDecimal("price"));
+            generator.writeStringField("imageUrl", rs.getString("image_url"));
+            generator.writeNumberField("stockQuantity", rs.getInt("stock_quantity"));
+            generator.writeStringField("categoryName", rs.getString("category_name"));
+            generator.writeStringField("brandName", rs.getString("brand_name"));
+            generator.writeStringField("updatedAt", rs.getTimestamp("updated_at").toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong("id")));
+            writer.write(',');
+            field(rs.getString("name"));
+            writer.write(',');
+            field(rs.getString("description"));
+            writer.write(',');
+            writer.write(rs.getBigDecimal("price").toPlainString());
+            writer.write(',');
+            field(rs.getString("image_url"));
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt("stock_quantity")));
+            writer.write(',');
+            field(rs.getString("category_name"));
+            writer.write(',');
+            field(rs.getString("brand_name"));
+            writer.write(',');
+            writer.write(rs.getTimestamp("updated_at").toLocalDateTime().toString());
+            writer.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductImportService.java
+package com.sky.Nykaa.feature_product;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.Outbox;
+import com.sky.Nykaa.common.exception.BadRequestException;
+import com.sky.Nykaa.feature_product.dto.ImportResultDto;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk catalog import. The upload is parsed row by row straight from the request stream,
+ * category and brand names are resolved against an in-memory map loaded once, and valid rows
+ * are written with PostgreSQL COPY in fixed-size chunks, each chunk in its own transaction.
+ * Memory use is bounded by the chunk size, not by the size of the file.
+ */
+@Service
+public class ProductImportService {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int CHUNK_ROWS = 5_000;
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+    // Lengths of the varchar columns (JPA's default of 255), checked per row so COPY never rejects a whole chunk for one value.
+    private static final int MAX_TEXT_LENGTH = 255;
+    // products.price is numeric(38,2).
+    private static final int MAX_PRICE_INTEGER_DIGITS = 36;
+
+    private static final String COPY_SQL = "COPY products (name, description, price, image_url, stock_quantity, " +
+            "category_id, brand_id, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    @Autowired private DataSource dataSource;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+    @Autowired private ProductCatalogIndex catalogIndex;
+    @Autowired private ProductSearchIndex searchIndex;
+    @Autowired private ProductSuggester suggester;
+    @Autowired private TaxonomyCache taxonomyCache;
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private Outbox outbox;
+
+    /**
+     * Imports products from a CSV (with header) or NDJSON stream. Both formats use the fields
+     * name, description, price, imageUrl, stockQuantity, category and brand; category and brand
+     * are names of existing rows. Invalid rows are reported and skipped, never partially loaded.
+     */
+    public ImportResultDto importProducts(InputStream body, String format) {
+        Map<String, Long> categoryIds = new HashMap<>();
+        categoryRepository.findAll().forEach(c -> categoryIds.put(key(c.getName()), c.getId()));
+        Map<String, Long> brandIds = new HashMap<>();
+        brandRepository.findAll().forEach(b -> brandIds.put(key(b.getName()), b.getId()));
+
+        Progress progress = new Progress();
+        StringBuilder chunk = new StringBuilder();
+        int chunkRows = 0;
+        long chunkFirstRow = 1;
+        String createdAt = LocalDateTime.now().toString();
+
+        try (RowSource rows = open(body, format)) {
+            Map<String, String> row;
+            while ((row = rows.next()) != null) {
+                long rowNumber = ++progress.rowsRead;
+                if (row == UNPARSEABLE) {
+                    progress.error(rowNumber, rows.lastError());
+                    continue;
+                }
+                String error = appendRow(chunk, row, categoryIds, brandIds, createdAt);
+                if (error != null) {
+                    progress.error(rowNumber, error);
+                    continue;
+                }
+                if (chunkRows == 0) {
+                    chunkFirstRow = rowNumber;
+                }
+                if (++chunkRows == CHUNK_ROWS) {
+                    copyChunk(chunk, chunkRows, chunkFirstRow, rowNumber, progress);
+                    chunk.setLength(0);
+                    chunkRows = 0;
+                }
+            }
+            if (chunkRows > 0) {
+                copyChunk(chunk, chunkRows, chunkFirstRow, progress.rowsRead, progress);
+            }
+        } catch (IOException e) {
+            progress.error(progress.rowsRead + 1, "Could not read upload: " + e.getMessage());
+        } finally {
+            if (progress.rowsImported > 0) {
+                refreshCatalog();
+            }
+        }
+        return new ImportResultDto(progress.rowsRead, progress.rowsImported, progress.errorCount, progress.errors);
+    }
+
+    // Validates one row and appends it to the chunk as a COPY csv line. Returns an error message instead when invalid.
+    private String appendRow(StringBuilder chunk, Map<String, String> row, Map<String, Long> categoryIds,
+                             Map<String, Long> brandIds, String createdAt) {
+        String name = trimToNull(row.get("name"));
+        if (name == null) {
+            return "name is required";
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            return "name is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        String imageUrl = trimToNull(row.get("imageUrl"));
+        if (imageUrl != null && imageUrl.length() > MAX_TEXT_LENGTH) {
+            return "imageUrl is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(row.getOrDefault("price", "").trim());
+        } catch (NumberFormatException e) {
+            return "price is not a number";
+        }
+        if (price.signum() <= 0) {
+            return "price must be positive";
+        }
+        if (price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            return "price is too large";
+        }
+        int stock;
+        try {
+            stock = Integer.parseInt(row.getOrDefault("stockQuantity", "").trim());
+        } catch (NumberFormatException e) {
+            return "stockQuantity is not a whole number";
+        }
+        if (stock < 0) {
+            return "stockQuantity must not be negative";
+        }
+        String category = trimToNull(row.get("category"));
+        Long categoryId = category == null ? null : categoryIds.get(key(category));
+        if (categoryId == null) {
+            return "unknown category: " + category;
+        }
+        String brand = trimToNull(row.get("brand"));
+        Long brandId = brand == null ? null : brandIds.get(key(brand));
+        if (brandId == null) {
+            return "unknown brand: " + brand;
+        }
+
+        appendField(chunk, name).append(',');
+        appendField(chunk, trimToNull(row.get("description"))).append(',');
+        chunk.append(price.toPlainString()).append(',');
+        appendField(chunk, imageUrl).append(',');
+        chunk.append(stock).append(',')
+                .append(categoryId).append(',')
+                .append(brandId).append(',')
+                .append(createdAt).append(',')
+                .append(createdAt).append('\n');
+        return null;
+    }
+
+    // Runs one COPY in its own transaction. A database-side failure rejects the whole chunk and is reported against its row range.
+    private void copyChunk(StringBuilder chunk, int rows, long firstRow, long lastRow, Progress progress) {
+        String data = chunk.toString();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                try {
+                    CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                    copyManager.copyIn(COPY_SQL, new StringReader(data));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+                outbox.publish(ProductEvents.PRODUCTS_IMPORTED, null, new ProductEvents.Imported(rows));
+            });
+            progress.rowsImported += rows;
+        } catch (RuntimeException e) {
+            progress.error(firstRow, "Rows " + firstRow + "-" + lastRow + " were not imported: " + e.getMessage());
+        }
+    }
+
+    // COPY bypasses the entity write path, so the in-memory views are rebuilt once at the end.
+    private void refreshCatalog() {
+        catalogIndex.load();
+        searchIndex.load();
+        suggester.load();
+        taxonomyCache.invalidateCategories();
+        taxonomyCache.invalidateBrands();
+        catalogVersion.bump();
+    }
+
+    private RowSource open(InputStream body, String format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format != null && format.startsWith(CSV)) {
+            return new CsvRows(reader);
+        }
+        if (format != null && (format.startsWith(NDJSON) || format.startsWith("application/ndjson"))) {
+            return new NdjsonRows(reader, objectMapper);
+        }
+        throw new BadRequestException("Unsupported import format: " + format);
+    }
+
+    private static StringBuilder appendField(StringBuilder out, String value) {
+        // An unquoted empty field is NULL in COPY csv; anything else is quoted.
+        if (value == null) {
+            return out;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Progress {
+        long rowsRead;
+        long rowsImported;
+        long errorCount;
+        final List<ImportResultDto.RowError> errors = new ArrayList<>();
+
+        void error(long row, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResultDto.RowError(row, message));
+            }
+        }
+    }
+
+    private static final Map<String, String> UNPARSEABLE = Map.of();
+
+    // Yields one row at a time as field name -> raw value, or UNPARSEABLE with lastError() set.
+    private interface RowSource extends AutoCloseable {
+        Map<String, String> next() throws IOException;
+
+        String lastError();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class CsvRows implements RowSource {
+        private final BufferedReader reader;
+        private final CsvRecordReader records;
+        private List<String> header;
+        private String lastError;
+
+        CsvRows(BufferedReader reader) {
+            this.reader = reader;
+            this.records = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = records.next();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(String::trim);
+            }
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != header.size()) {
+                lastError = "expected " + header.size() + " fields but found " + fields.size();
+                return UNPARSEABLE;
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(header.get(i), fields.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public String lastError() {
+            return lastError;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private String lastError;
+
+        NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                lastError = "invalid JSON";
+                return UNPARSEABLE;
+            }
+            if (!node.isObject()) {
+                lastError = "expected a JSON object";
+                return UNPARSEABLE;
+            }
+            Map<String, String> row = new HashMap<>();
+            node.properties().forEach(f -> {
+                if (!f.getValue().isNull()) {
+                    row.put(f.getKey(), f.getValue().asText());
+                }
+            });
+            return row;
+        }
+
+        @Override
+        public String lastError() {
+            return lastError;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
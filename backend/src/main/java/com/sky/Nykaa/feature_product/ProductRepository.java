@@ -1,15 +1,23 @@
 
 package com.sky.Nykaa.feature_product;
 
+import com.sky.Nykaa.feature_product.dto.ProductDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -21,6 +29,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * UPDATED: Added minPrice and maxPrice to the query.
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE " +
             "(:categories IS NULL OR p.category.name IN :categories) AND " +
             "(:brands IS NULL OR p.brand.name IN :brands) AND " +
@@ -32,4 +41,129 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             Pageable pageable);
+
+    /**
+     * Keyset variants of findByFilters used by the cursor listing before the catalog index is loaded.
+     * They return a Slice, so no COUNT query is issued; pass PageRequest.of(0, size) as the pageable.
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query("SELECT p FROM Product p WHERE " +
+            "(:categories IS NULL OR p.category.name IN :categories) AND " +
+            "(:brands IS NULL OR p.brand.name IN :brands) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:lastId IS NULL OR p.id > :lastId) " +
+            "ORDER BY p.id ASC")
+    Slice<Product> findByFiltersAfterId(
+            @Param("categories") List<String> categories,
+            @Param("brands") List<String> brands,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query("SELECT p FROM Product p WHERE " +
+            "(:categories IS NULL OR p.category.name IN :categories) AND " +
+            "(:brands IS NULL OR p.brand.name IN :brands) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:lastId IS NULL OR p.price > :lastPrice OR (p.price = :lastPrice AND p.id > :lastId)) " +
+            "ORDER BY p.price ASC, p.id ASC")
+    Slice<Product> findByFiltersAfterPriceAsc(
+            @Param("categories") List<String> categories,
+            @Param("brands") List<String> brands,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("lastPrice") BigDecimal lastPrice,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query("SELECT p FROM Product p WHERE " +
+            "(:categories IS NULL OR p.category.name IN :categories) AND " +
+            "(:brands IS NULL OR p.brand.name IN :brands) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:lastId IS NULL OR p.price < :lastPrice OR (p.price = :lastPrice AND p.id < :lastId)) " +
+            "ORDER BY p.price DESC, p.id DESC")
+    Slice<Product> findByFiltersAfterPriceDesc(
+            @Param("categories") List<String> categories,
+            @Param("brands") List<String> brands,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("lastPrice") BigDecimal lastPrice,
+            @Param("lastId") Long lastId,
+            Pageable pageable);
+
+    /**
+     * Listing and detail reads that build ProductDto directly in a single statement,
+     * instead of loading entities and then touching the LAZY category and brand per row.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_product.dto.ProductDto(" +
+            "p.id, p.name, p.description, p.price, p.imageUrl, p.stockQuantity, c.name, b.name) " +
+            "FROM Product p JOIN p.category c JOIN p.brand b WHERE p.id IN :ids")
+    List<ProductDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.sky.Nykaa.feature_product.dto.ProductDto(" +
+            "p.id, p.name, p.description, p.price, p.imageUrl, p.stockQuantity, c.name, b.name) " +
+            "FROM Product p JOIN p.category c JOIN p.brand b WHERE p.id = :id")
+    Optional<ProductDto> findDtoById(@Param("id") Long id);
+
+    /**
+     * Products with their category and brand in one statement, for building order lines.
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findWithTaxonomyByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the columns needed by ProductCatalogIndex for every product in one statement.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_product.CatalogEntry(p.id, p.price, c.name, b.name) " +
+            "FROM Product p JOIN p.category c JOIN p.brand b ORDER BY p.id")
+    List<CatalogEntry> findAllCatalogEntries();
+
+    /**
+     * Loads the searchable text of every product for ProductSearchIndex in one statement.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_product.SearchDocument(p.id, p.name, p.description, b.name, c.name) " +
+            "FROM Product p JOIN p.brand b JOIN p.category c ORDER BY p.id")
+    List<SearchDocument> findAllSearchDocuments();
+
+    /**
+     * The searchable text of the products in one category, e.g. to re-index them after a rename.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_product.SearchDocument(p.id, p.name, p.description, b.name, c.name) " +
+            "FROM Product p JOIN p.brand b JOIN p.category c WHERE c.id = :categoryId")
+    List<SearchDocument> findSearchDocumentsByCategory(@Param("categoryId") Long categoryId);
+
+    /**
+     * The searchable text of the products of one brand, e.g. to re-index them after a rename.
+     */
+    @Query("SELECT new com.sky.Nykaa.feature_product.SearchDocument(p.id, p.name, p.description, b.name, c.name) " +
+            "FROM Product p JOIN p.brand b JOIN p.category c WHERE b.id = :brandId")
+    List<SearchDocument> findSearchDocumentsByBrand(@Param("brandId") Long brandId);
+
+    /**
+     * Rows of (product id, product name, brand id, category id) for ProductSuggester.
+     */
+    @Query("SELECT p.id, p.name, p.brand.id, p.category.id FROM Product p")
+    List<Object[]> findAllSuggestionRows();
+
+    /**
+     * Marks every product of a renamed category as changed, so incremental exports pick up the new name.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.category.id = :categoryId")
+    int touchByCategory(@Param("categoryId") Long categoryId, @Param("now") LocalDateTime now);
+
+    /**
+     * Marks every product of a renamed brand as changed, so incremental exports pick up the new name.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.brand.id = :brandId")
+    int touchByBrand(@Param("brandId") Long brandId, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,350 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductSearchIndex.java
+package com.sky.Nykaa.feature_product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process inverted index over product name, description, brand name and category name.
+ * Postings are primitive arrays of document ordinals and field-weighted term frequencies;
+ * queries are OR-ed terms ranked with BM25. Updates tombstone the old ordinal and append a
+ * new one, and the index re-packs itself once tombstones outnumber live documents.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Field boosts: a hit in the name matters more than one buried in the description.
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Higher score first; ties go to the lower id, so paging is stable.
+    private static final Comparator<Hit> BEST_FIRST = (a, b) ->
+            a.score != b.score ? Float.compare(b.score, a.score) : Long.compare(a.id, b.id);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private float[] lengths = new float[INITIAL_CAPACITY];
+    private List<Map<String, Float>> terms = new ArrayList<>();
+    private int size;
+    private int liveCount;
+    private double totalLength;
+
+    private volatile boolean ready;
+
+    // Changes made while load() reads the database, replayed onto what it read. Guarded by lock; null when not loading.
+    private List<Runnable> journal;
+    private final Object loadLock = new Object();
+
+    // Per-thread score accumulator so queries do not allocate an array per request.
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Rebuilds the index from the database. Upserts and removals that arrive while the documents are
+     * being read are applied again on top of them, so none is lost to the rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            lock.writeLock().lock();
+            try {
+                journal = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<SearchDocument> documents;
+            try {
+                documents = productRepository.findAllSearchDocuments();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    journal = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (SearchDocument document : documents) {
+                    add(document.getId(), analyze(document));
+                }
+                journal.forEach(Runnable::run);
+                journal = null;
+                compactIfNeeded();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void upsert(SearchDocument document) {
+        upsertAll(List.of(document));
+    }
+
+    // Replaces many documents under one lock, so searches see either none or all of them updated.
+    public void upsertAll(List<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<Map<String, Float>> analyzed = documents.stream().map(ProductSearchIndex::analyze).toList();
+        lock.writeLock().lock();
+        try {
+            applyUpserts(documents, analyzed);
+            if (journal != null) {
+                journal.add(() -> applyUpserts(documents, analyzed));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            applyRemove(productId);
+            if (journal != null) {
+                journal.add(() -> applyRemove(productId));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held.
+    private void applyUpserts(List<SearchDocument> documents, List<Map<String, Float>> analyzed) {
+        for (int i = 0; i < documents.size(); i++) {
+            Integer previous = ordinals.get(documents.get(i).getId());
+            if (previous != null) {
+                tombstone(previous);
+            }
+            add(documents.get(i).getId(), analyzed.get(i));
+        }
+    }
+
+    // Called with the write lock held.
+    private void applyRemove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal != null) {
+            tombstone(ordinal);
+        }
+    }
+
+    /**
+     * Scores every live product containing at least one query term and passing filter (null for
+     * none), and returns the limit best of them best-first along with how many matched in all.
+     * Only a heap of limit hits is kept, so the cost of a common term is not a sort of all its matches.
+     */
+    public TopHits search(String query, int limit, LongPredicate filter) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return new TopHits(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.ensureCapacity(size);
+            float averageLength = liveCount == 0 ? 1f : (float) (totalLength / liveCount);
+
+            for (String term : queryTerms) {
+                Postings p = postings.get(term);
+                if (p == null || p.documentFrequency == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveCount - p.documentFrequency + 0.5) / (p.documentFrequency + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (!live.get(doc)) {
+                        continue;
+                    }
+                    float tf = p.frequencies[i];
+                    float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    if (s.scores[doc] == 0f) {
+                        s.touched[s.touchedCount++] = doc;
+                    }
+                    s.scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Worst hit on top, so it is the one a better candidate replaces.
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, Math.min(limit, s.touchedCount)), BEST_FIRST.reversed());
+            int total = 0;
+            for (int i = 0; i < s.touchedCount; i++) {
+                int doc = s.touched[i];
+                float score = s.scores[doc];
+                s.scores[doc] = 0f;
+                long id = ids[doc];
+                if (filter != null && !filter.test(id)) {
+                    continue;
+                }
+                total++;
+                if (top.size() < limit) {
+                    top.add(new Hit(id, score));
+                } else if (limit > 0 && BEST_FIRST.compare(new Hit(id, score), top.peek()) < 0) {
+                    top.poll();
+                    top.add(new Hit(id, score));
+                }
+            }
+            s.touchedCount = 0;
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(BEST_FIRST);
+            return new TopHits(hits, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Float> analyze(SearchDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, document.getName(), NAME_WEIGHT);
+        addField(frequencies, document.getBrandName(), BRAND_WEIGHT);
+        addField(frequencies, document.getCategoryName(), CATEGORY_WEIGHT);
+        addField(frequencies, document.getDescription(), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void add(long id, Map<String, Float> frequencies) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        int ordinal = size++;
+        float length = 0f;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new Postings()).add(ordinal, entry.getValue());
+            length += entry.getValue();
+        }
+        ids[ordinal] = id;
+        lengths[ordinal] = length;
+        terms.add(frequencies);
+        ordinals.put(id, ordinal);
+        live.set(ordinal);
+        liveCount++;
+        totalLength += length;
+    }
+
+    private void tombstone(int ordinal) {
+        live.clear(ordinal);
+        liveCount--;
+        totalLength -= lengths[ordinal];
+        for (String term : terms.get(ordinal).keySet()) {
+            postings.get(term).documentFrequency--;
+        }
+        terms.set(ordinal, Map.of());
+    }
+
+    // Re-packs postings once dead ordinals outnumber live ones, using the stored term frequencies.
+    private void compactIfNeeded() {
+        int dead = size - liveCount;
+        if (dead < INITIAL_CAPACITY || dead < liveCount) {
+            return;
+        }
+        long[] oldIds = ids;
+        List<Map<String, Float>> oldTerms = terms;
+        BitSet oldLive = (BitSet) live.clone();
+        clear();
+        for (int o = oldLive.nextSetBit(0); o >= 0; o = oldLive.nextSetBit(o + 1)) {
+            add(oldIds[o], oldTerms.get(o));
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        ordinals.clear();
+        live.clear();
+        ids = new long[INITIAL_CAPACITY];
+        lengths = new float[INITIAL_CAPACITY];
+        terms = new ArrayList<>();
+        size = 0;
+        liveCount = 0;
+        totalLength = 0;
+    }
+
+    private static class Postings {
+        int[] docs = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+        int documentFrequency;
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            documentFrequency++;
+        }
+    }
+
+    private static class Scratch {
+        float[] scores = new float[0];
+        int[] touched = new int[0];
+        int touchedCount;
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity];
+                touched = new int[capacity];
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final long id;
+        private final float score;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TopHits {
+        private final List<Hit> hits;
+        private final int total;
+    }
+}
@@ -1,47 +1,198 @@
 // src/main/java/com/sky/Nykaa/feature_product/ProductService.java
 package com.sky.Nykaa.feature_product;
 
+import com.sky.Nykaa.common.AfterCommit;
+import com.sky.Nykaa.common.Outbox;
+import com.sky.Nykaa.common.exception.BadRequestException;
 import com.sky.Nykaa.common.exception.ResourceNotFoundException;
+import com.sky.Nykaa.common.exception.ServiceUnavailableException;
 import com.sky.Nykaa.feature_product.dto.CreateProductRequest;
+import com.sky.Nykaa.feature_product.dto.FacetedProductPage;
+import com.sky.Nykaa.feature_product.dto.ProductCursorPage;
 import com.sky.Nykaa.feature_product.dto.ProductDto;
+import com.sky.Nykaa.feature_product.dto.SuggestionDto;
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.sky.Nykaa.feature_cart.CartItemRepository;
+import com.sky.Nykaa.feature_cart.CartStore;
 import com.sky.Nykaa.feature_order.OrderItemRepository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ProductService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
+    static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
     @Autowired private ProductRepository productRepository;
     @Autowired private CategoryRepository categoryRepository;
     @Autowired private BrandRepository brandRepository;
     @Autowired private CartItemRepository cartItemRepository;
+    @Autowired private CartStore cartStore;
     @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private ProductCatalogIndex catalogIndex;
+    @Autowired private ProductSearchIndex searchIndex;
+    @Autowired private ProductSuggester suggester;
+    @Autowired private CatalogVersion catalogVersion;
+    @Autowired private TaxonomyCache taxonomyCache;
+    @Autowired private StockLedger stockLedger;
+    @Autowired private Outbox outbox;
+
+    /**
+     * UPDATED: Filtering is answered by the in-memory ProductCatalogIndex; only the rows of the
+     * requested page are read from the database. Falls back to the JPQL query until the index is loaded.
+     */
+    public Page<ProductDto> getAllProducts(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                                           ProductSort sort, Pageable pageable) {
+        List<String> categoryFilter = (categories != null && !categories.isEmpty()) ? categories : null;
+        List<String> brandFilter = (brands != null && !brands.isEmpty()) ? brands : null;
+
+        if (!catalogIndex.isReady()) {
+            Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.toSort());
+            Page<Product> productPage = productRepository.findByFilters(categoryFilter, brandFilter, minPrice, maxPrice, sorted);
+            return productPage.map(this::mapEntityToDto);
+        }
+
+        ProductCatalogIndex.Hits hits = catalogIndex.query(categoryFilter, brandFilter, minPrice, maxPrice,
+                sort, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+    }
 
     /**
-     * UPDATED: Method now accepts minPrice and maxPrice for filtering.
+     * NEW: Same as getAllProducts, plus per-category, per-brand and price-bucket counts computed
+     * by the catalog index in the same pass. Facets are null while the index is still loading.
      */
-    public Page<ProductDto> getAllProducts(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+    public FacetedProductPage getAllProductsWithFacets(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                                                       ProductSort sort, Pageable pageable) {
+        if (!catalogIndex.isReady()) {
+            return new FacetedProductPage(getAllProducts(categories, brands, minPrice, maxPrice, sort, pageable), null);
+        }
         List<String> categoryFilter = (categories != null && !categories.isEmpty()) ? categories : null;
         List<String> brandFilter = (brands != null && !brands.isEmpty()) ? brands : null;
 
-        Page<Product> productPage = productRepository.findByFilters(categoryFilter, brandFilter, minPrice, maxPrice, pageable);
-        return productPage.map(this::mapEntityToDto);
+        ProductCatalogIndex.FacetedHits result = catalogIndex.queryWithFacets(categoryFilter, brandFilter, minPrice, maxPrice,
+                sort, pageable.getOffset(), pageable.getPageSize());
+        ProductCatalogIndex.Hits hits = result.getHits();
+        Page<ProductDto> page = new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+        return new FacetedProductPage(page, result.getFacets());
+    }
+
+    /**
+     * NEW: Full-text search over name, description, brand and category, ranked by relevance (BM25)
+     * and narrowed by the same filters as the listing.
+     */
+    public Page<ProductDto> searchProducts(String query, List<String> categories, List<String> brands,
+                                           BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (!searchIndex.isReady() || !catalogIndex.isReady()) {
+            throw new ServiceUnavailableException("Product search is still warming up, please retry shortly");
+        }
+        List<String> categoryFilter = (categories != null && !categories.isEmpty()) ? categories : null;
+        List<String> brandFilter = (brands != null && !brands.isEmpty()) ? brands : null;
+
+        // Only the hits up to the end of the requested page are ranked.
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        ProductSearchIndex.TopHits top = categoryFilter != null || brandFilter != null || minPrice != null || maxPrice != null
+                ? catalogIndex.withFilter(categoryFilter, brandFilter, minPrice, maxPrice, filter -> searchIndex.search(query, limit, filter))
+                : searchIndex.search(query, limit, null);
+        List<Long> ranked = top.getHits().stream()
+                .map(ProductSearchIndex.Hit::getId)
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        return new PageImpl<>(findDtosInOrder(ranked.subList(from, ranked.size())), pageable, top.getTotal());
+    }
+
+    /**
+     * NEW: Search-as-you-type suggestions for product, brand and category names, served from memory.
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggester.suggest(prefix, limit);
+    }
+
+    /**
+     * NEW: Keyset (cursor) pagination for infinite-scroll clients. Returns the products strictly after
+     * the "after" token, without a total count; a blank token starts from the beginning.
+     * size is clamped to 1..MAX_PAGE_SIZE.
+     */
+    public ProductCursorPage getProductsAfter(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                                              ProductSort sort, String after, int size) {
+        List<String> categoryFilter = (categories != null && !categories.isEmpty()) ? categories : null;
+        List<String> brandFilter = (brands != null && !brands.isEmpty()) ? brands : null;
+        ProductCursor cursor = ProductCursor.decode(after, sort);
+        int pageSize = clampPageSize(size);
+
+        List<ProductDto> content;
+        boolean hasNext;
+        if (catalogIndex.isReady()) {
+            List<Long> ids = catalogIndex.seek(categoryFilter, brandFilter, minPrice, maxPrice, sort, cursor, pageSize + 1);
+            hasNext = ids.size() > pageSize;
+            content = findDtosInOrder(hasNext ? ids.subList(0, pageSize) : ids);
+        } else {
+            Slice<Product> slice = seekInDatabase(categoryFilter, brandFilter, minPrice, maxPrice, sort, cursor, pageSize);
+            hasNext = slice.hasNext();
+            content = slice.map(this::mapEntityToDto).getContent();
+        }
+
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            ProductDto last = content.get(content.size() - 1);
+            nextCursor = ProductCursor.after(sort, last.getPrice(), last.getId()).encode();
+        }
+        return new ProductCursorPage(content, nextCursor, hasNext);
+    }
+
+    private Slice<Product> seekInDatabase(List<String> categories, List<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                                          ProductSort sort, ProductCursor cursor, int size) {
+        Pageable firstSlice = PageRequest.of(0, size);
+        Long lastId = cursor == null ? null : cursor.getLastId();
+        BigDecimal lastPrice = cursor == null ? null : cursor.getPrice();
+        return switch (sort) {
+            case ID -> productRepository.findByFiltersAfterId(categories, brands, minPrice, maxPrice, lastId, firstSlice);
+            case PRICE_ASC -> productRepository.findByFiltersAfterPriceAsc(categories, brands, minPrice, maxPrice, lastPrice, lastId, firstSlice);
+            case PRICE_DESC -> productRepository.findByFiltersAfterPriceDesc(categories, brands, minPrice, maxPrice, lastPrice, lastId, firstSlice);
+        };
+    }
+
+    // Loads the given products by primary key in one statement and returns them in the same order as the ids.
+    private List<ProductDto> findDtosInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductDto> byId = productRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapEntityToDto(product);
     }
 
+    @Transactional
     public ProductDto createProduct(CreateProductRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
@@ -59,65 +210,158 @@ public class ProductService {
         product.setCreatedAt(java.time.LocalDateTime.now());
 
         Product savedProduct = productRepository.save(product);
+        publishChanged(savedProduct);
+        // UPDATED: The in-memory views follow once the product (and its outbox event) is committed.
+        CatalogEntry entry = CatalogEntry.of(savedProduct);
+        SearchDocument document = SearchDocument.of(savedProduct);
+        AfterCommit.run(() -> {
+            catalogIndex.upsert(entry);
+            searchIndex.upsert(document);
+            suggester.upsertProduct(savedProduct.getId(), savedProduct.getName(), brand.getId(), category.getId());
+            taxonomyCache.productAdded(category.getId(), brand.getId(), 1);
+            catalogVersion.bump();
+        });
         return mapEntityToDto(savedProduct);
     }
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    /**
+     * UPDATED: Returns id, name, image and product count from the in-memory TaxonomyCache
+     * instead of entities that drag their whole product set into the JSON.
+     */
+    public List<TaxonomyDto> getAllCategories() {
+        return taxonomyCache.getCategories();
     }
 
-    public List<Brand> getAllBrands() {
-        return brandRepository.findAll();
+    public List<TaxonomyDto> getAllBrands() {
+        return taxonomyCache.getBrands();
     }
 
+    @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        Long id = savedCategory.getId();
+        String name = savedCategory.getName();
+        AfterCommit.run(() -> {
+            suggester.upsert(ProductSuggester.CATEGORY, id, name);
+            taxonomyCache.invalidateCategories();
+            catalogVersion.bump();
+        });
+        return savedCategory;
     }
 
+    @Transactional
     public Category updateCategory(Long id, Category categoryDetails) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        String oldName = category.getName();
         category.setName(categoryDetails.getName());
         category.setImage(categoryDetails.getImage());
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        String newName = savedCategory.getName();
+        // UPDATED: A rename re-indexes only the products in the category, once it is committed.
+        List<SearchDocument> renamed = List.of();
+        if (!newName.equals(oldName)) {
+            productRepository.touchByCategory(id, LocalDateTime.now()); // the name is part of every exported row
+            renamed = productRepository.findSearchDocumentsByCategory(id); // and indexed text of every product in it
+        }
+        List<SearchDocument> documents = renamed;
+        AfterCommit.run(() -> {
+            suggester.upsert(ProductSuggester.CATEGORY, id, newName);
+            catalogIndex.renameCategory(oldName, newName);
+            searchIndex.upsertAll(documents);
+            taxonomyCache.invalidateCategories();
+            catalogVersion.bump();
+        });
+        return savedCategory;
     }
 
+    @Transactional
     public void deleteCategory(Long id) {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Category not found with id: " + id);
         }
         categoryRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            suggester.remove(ProductSuggester.CATEGORY, id);
+            taxonomyCache.invalidateCategories();
+            catalogVersion.bump();
+        });
     }
 
+    @Transactional
     public Brand createBrand(Brand brand) {
-        return brandRepository.save(brand);
+        Brand savedBrand = brandRepository.save(brand);
+        Long id = savedBrand.getId();
+        String name = savedBrand.getName();
+        AfterCommit.run(() -> {
+            suggester.upsert(ProductSuggester.BRAND, id, name);
+            taxonomyCache.invalidateBrands();
+            catalogVersion.bump();
+        });
+        return savedBrand;
     }
 
+    @Transactional
     public Brand updateBrand(Long id, Brand brandDetails) {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand not found with id: " + id));
+        String oldName = brand.getName();
         brand.setName(brandDetails.getName());
         brand.setImage(brandDetails.getImage());
-        return brandRepository.save(brand);
+        Brand savedBrand = brandRepository.save(brand);
+        String newName = savedBrand.getName();
+        // UPDATED: A rename re-indexes only the products of the brand, once it is committed.
+        List<SearchDocument> renamed = List.of();
+        if (!newName.equals(oldName)) {
+            productRepository.touchByBrand(id, LocalDateTime.now()); // the name is part of every exported row
+            renamed = productRepository.findSearchDocumentsByBrand(id); // and indexed text of every product in it
+        }
+        List<SearchDocument> documents = renamed;
+        AfterCommit.run(() -> {
+            suggester.upsert(ProductSuggester.BRAND, id, newName);
+            catalogIndex.renameBrand(oldName, newName);
+            searchIndex.upsertAll(documents);
+            taxonomyCache.invalidateBrands();
+            catalogVersion.bump();
+        });
+        return savedBrand;
     }
 
+    @Transactional
     public void deleteBrand(Long id) {
         if (!brandRepository.existsById(id)) {
             throw new ResourceNotFoundException("Brand not found with id: " + id);
         }
         brandRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            suggester.remove(ProductSuggester.BRAND, id);
+            taxonomyCache.invalidateBrands();
+            catalogVersion.bump();
+        });
     }
 
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
-        }
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Long categoryId = product.getCategory().getId();
+        Long brandId = product.getBrand().getId();
         cartItemRepository.deleteByProductId(id);
         orderItemRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        outbox.publish(ProductEvents.PRODUCT_DELETED, id, Map.of("productId", id));
+        AfterCommit.run(() -> {
+            catalogIndex.remove(id);
+            searchIndex.remove(id);
+            cartStore.productRemoved(id);
+            stockLedger.forget(id);
+            suggester.remove(ProductSuggester.PRODUCT, id);
+            taxonomyCache.productAdded(categoryId, brandId, -1);
+            catalogVersion.bump();
+        });
     }
 
+    @Transactional
     public ProductDto updateProduct(Long id, CreateProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -127,6 +371,9 @@ public class ProductService {
         Brand brand = brandRepository.findById(request.getBrandId())
                 .orElseThrow(() -> new ResourceNotFoundException("Brand not found with id: " + request.getBrandId()));
 
+        Long oldCategoryId = product.getCategory().getId();
+        Long oldBrandId = product.getBrand().getId();
+
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
@@ -136,9 +383,27 @@ public class ProductService {
         product.setBrand(brand);
 
         Product updatedProduct = productRepository.save(product);
+        publishChanged(updatedProduct);
+        // UPDATED: The in-memory views follow once the change (and its outbox event) is committed.
+        CatalogEntry entry = CatalogEntry.of(updatedProduct);
+        SearchDocument document = SearchDocument.of(updatedProduct);
+        AfterCommit.run(() -> {
+            stockLedger.forget(id);
+            catalogIndex.upsert(entry);
+            searchIndex.upsert(document);
+            suggester.upsertProduct(updatedProduct.getId(), updatedProduct.getName(), brand.getId(), category.getId());
+            taxonomyCache.productMoved(oldCategoryId, category.getId(), oldBrandId, brand.getId());
+            catalogVersion.bump();
+        });
         return mapEntityToDto(updatedProduct);
     }
 
+    private void publishChanged(Product product) {
+        outbox.publish(ProductEvents.PRODUCT_CHANGED, product.getId(), new ProductEvents.Changed(product.getId(),
+                product.getName(), product.getPrice(), product.getStockQuantity(),
+                product.getCategory().getId(), product.getBrand().getId()));
+    }
+
     private ProductDto mapEntityToDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
@@ -0,0 +1,37 @@
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.common.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+// Orderings supported by the product listing. Every ordering ends with the product id
+// as a tie-breaker so that keyset cursors are unambiguous.
+public enum ProductSort {
+    ID("id", Sort.by("id")),
+    PRICE_ASC("price_asc", Sort.by("price").ascending().and(Sort.by("id").ascending())),
+    PRICE_DESC("price_desc", Sort.by("price").descending().and(Sort.by("id").descending()));
+
+    private final String param;
+    private final Sort sort;
+
+    ProductSort(String param, Sort sort) {
+        this.param = param;
+        this.sort = sort;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public Sort toSort() {
+        return sort;
+    }
+
+    public static ProductSort fromParam(String value) {
+        for (ProductSort candidate : values()) {
+            if (candidate.param.equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        throw new BadRequestException("Unknown sort: " + value);
+    }
+}
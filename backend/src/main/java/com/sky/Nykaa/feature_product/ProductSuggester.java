@@ -0,0 +1,432 @@
+// src/main/java/com/sky/Nykaa/feature_product/ProductSuggester.java
+package com.sky.Nykaa.feature_product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.AfterCommit;
+import com.sky.Nykaa.common.OutboxMessage;
+import com.sky.Nykaa.common.OutboxSubscriber;
+import com.sky.Nykaa.feature_order.OrderEvents;
+import com.sky.Nykaa.feature_order.OrderItemRepository;
+import com.sky.Nykaa.feature_product.dto.SuggestionDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type suggestions over product, brand and category names.
+ * Every word start of every name becomes a key in one sorted array, so a prefix maps to a
+ * contiguous range found with two binary searches. Results are ranked by popularity
+ * (units sold; brands and categories sum their products), loaded from order items at startup
+ * and kept current from ORDER_PLACED events. Readers use an immutable snapshot; writers patch
+ * the entry slots and a background thread publishes a new snapshot at most every
+ * PUBLISH_INTERVAL_MS. Only name changes, additions and removals re-sort the keys; popularity
+ * changes reuse them.
+ */
+@Component
+public class ProductSuggester implements OutboxSubscriber {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String BRAND = "BRAND";
+    public static final String CATEGORY = "CATEGORY";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggester.class);
+
+    // Prefixes this short match huge ranges, so their answers are memoized per snapshot.
+    private static final int MEMO_PREFIX_LENGTH = 2;
+    private static final int MAX_LIMIT = 20;
+
+    static final long PUBLISH_INTERVAL_MS = 250;
+
+    @Autowired private ProductRepository productRepository;
+    @Autowired private BrandRepository brandRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    // Writer state, guarded by slots. A published snapshot addresses entries by slot, so slots only
+    // move (removed ones are dropped) when the keys are rebuilt.
+    private final List<Entry> slots = new ArrayList<>();
+    private final Map<String, Integer> slotsByKey = new HashMap<>();
+    private boolean keysChanged;
+    private boolean entriesChanged;
+    // Upserts and removals made while load() reads the database, replayed onto what it read; null when
+    // not loading. Sales are not journaled: the totals load() reads already count committed orders.
+    private List<Runnable> journal;
+    private final Object loadLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0], new String[0], new int[0]);
+
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "suggester-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        publisher.scheduleWithFixedDelay(this::publishQuietly, PUBLISH_INTERVAL_MS, PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        publisher.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (loadLock) {
+            synchronized (slots) {
+                journal = new ArrayList<>();
+            }
+            try {
+                replace(read());
+            } finally {
+                synchronized (slots) {
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    private List<Entry> read() {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantityByProduct()) {
+            unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        Map<Long, Long> brandPopularity = new HashMap<>();
+        Map<Long, Long> categoryPopularity = new HashMap<>();
+        List<Entry> loaded = new ArrayList<>();
+        for (Object[] row : productRepository.findAllSuggestionRows()) {
+            Long productId = (Long) row[0];
+            long popularity = unitsSold.getOrDefault(productId, 0L);
+            loaded.add(new Entry(PRODUCT, productId, (String) row[1], popularity, (Long) row[2], (Long) row[3]));
+            brandPopularity.merge((Long) row[2], popularity, Long::sum);
+            categoryPopularity.merge((Long) row[3], popularity, Long::sum);
+        }
+        for (Brand brand : brandRepository.findAll()) {
+            loaded.add(new Entry(BRAND, brand.getId(), brand.getName(), brandPopularity.getOrDefault(brand.getId(), 0L), null, null));
+        }
+        for (Category category : categoryRepository.findAll()) {
+            loaded.add(new Entry(CATEGORY, category.getId(), category.getName(),
+                    categoryPopularity.getOrDefault(category.getId(), 0L), null, null));
+        }
+        return loaded;
+    }
+
+    private void replace(List<Entry> loaded) {
+        synchronized (slots) {
+            slots.clear();
+            slotsByKey.clear();
+            loaded.forEach(this::put);
+            journal.forEach(Runnable::run);
+            publish();
+        }
+    }
+
+    /**
+     * Adds or renames a product, keeping the popularity it already had. A product moved to another
+     * brand or category takes its popularity along.
+     */
+    public void upsertProduct(Long id, String name, Long brandId, Long categoryId) {
+        synchronized (slots) {
+            journaled(() -> applyUpsertProduct(id, name, brandId, categoryId));
+        }
+    }
+
+    /**
+     * Adds or renames a brand or category, keeping the popularity it already had.
+     */
+    public void upsert(String type, Long id, String name) {
+        synchronized (slots) {
+            journaled(() -> applyUpsert(type, id, name));
+        }
+    }
+
+    public void remove(String type, Long id) {
+        synchronized (slots) {
+            journaled(() -> applyRemove(type, id));
+        }
+    }
+
+    // Called with the slots lock held.
+    private void journaled(Runnable change) {
+        change.run();
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    private void applyUpsertProduct(Long id, String name, Long brandId, Long categoryId) {
+        Entry existing = get(PRODUCT, id);
+        long popularity = existing == null ? 0L : existing.popularity;
+        if (existing != null && !Objects.equals(existing.brandId, brandId)) {
+            addPopularity(BRAND, existing.brandId, -popularity);
+            addPopularity(BRAND, brandId, popularity);
+        }
+        if (existing != null && !Objects.equals(existing.categoryId, categoryId)) {
+            addPopularity(CATEGORY, existing.categoryId, -popularity);
+            addPopularity(CATEGORY, categoryId, popularity);
+        }
+        put(new Entry(PRODUCT, id, name, popularity, brandId, categoryId));
+    }
+
+    private void applyUpsert(String type, Long id, String name) {
+        Entry existing = get(type, id);
+        put(new Entry(type, id, name, existing == null ? 0L : existing.popularity, null, null));
+    }
+
+    private void applyRemove(String type, Long id) {
+        Integer slot = slotsByKey.remove(key(type, id));
+        if (slot == null) {
+            return;
+        }
+        Entry removed = slots.set(slot, null);
+        if (PRODUCT.equals(type)) {
+            addPopularity(BRAND, removed.brandId, -removed.popularity);
+            addPopularity(CATEGORY, removed.categoryId, -removed.popularity);
+        }
+        keysChanged = true;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OrderEvents.ORDER_PLACED);
+    }
+
+    // Counted once the dispatch batch commits, so a redelivered event is not counted twice.
+    @Override
+    public void handle(OutboxMessage message) throws Exception {
+        OrderEvents.Placed placed = objectMapper.readValue(message.getPayload(), OrderEvents.Placed.class);
+        AfterCommit.run(() -> sold(placed.getItems()));
+    }
+
+    // items: product id -> units sold. Each product's brand and category gain the same units.
+    void sold(Map<Long, Integer> items) {
+        synchronized (slots) {
+            items.forEach((productId, units) -> {
+                Entry product = get(PRODUCT, productId);
+                if (product != null) {
+                    addPopularity(PRODUCT, productId, units);
+                    addPopularity(BRAND, product.brandId, units);
+                    addPopularity(CATEGORY, product.categoryId, units);
+                }
+            });
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String normalized = SearchTokenizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Snapshot current = snapshot;
+        List<Entry> ranked = normalized.length() <= MEMO_PREFIX_LENGTH
+                ? current.memoized(normalized)
+                : current.top(normalized, capped);
+        return ranked.stream()
+                .limit(capped)
+                .map(e -> new SuggestionDto(e.type, e.id, e.name))
+                .toList();
+    }
+
+    // Called with the slots lock held.
+    private Entry get(String type, Long id) {
+        Integer slot = slotsByKey.get(key(type, id));
+        return slot == null ? null : slots.get(slot);
+    }
+
+    // Called with the slots lock held.
+    private void put(Entry entry) {
+        String key = key(entry.type, entry.id);
+        Integer slot = slotsByKey.get(key);
+        if (slot == null) {
+            slotsByKey.put(key, slots.size());
+            slots.add(entry);
+            keysChanged = true;
+        } else {
+            keysChanged |= !slots.get(slot).name.equals(entry.name);
+            slots.set(slot, entry);
+        }
+        entriesChanged = true;
+    }
+
+    // Called with the slots lock held.
+    private void addPopularity(String type, Long id, long delta) {
+        Integer slot = id == null || delta == 0 ? null : slotsByKey.get(key(type, id));
+        if (slot != null) {
+            Entry entry = slots.get(slot);
+            slots.set(slot, new Entry(entry.type, entry.id, entry.name, entry.popularity + delta, entry.brandId, entry.categoryId));
+            entriesChanged = true;
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            synchronized (slots) {
+                publish();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Publishing suggestions failed, will retry", e);
+        }
+    }
+
+    // Makes the writer state visible to readers. Called with the slots lock held.
+    private void publish() {
+        if (keysChanged) {
+            List<Entry> live = slots.stream().filter(Objects::nonNull).toList();
+            slots.clear();
+            slotsByKey.clear();
+            for (Entry entry : live) {
+                slotsByKey.put(key(entry.type, entry.id), slots.size());
+                slots.add(entry);
+            }
+            snapshot = Snapshot.build(slots.toArray(new Entry[0]));
+        } else if (entriesChanged) {
+            snapshot = new Snapshot(slots.toArray(new Entry[0]), snapshot.keys, snapshot.owners);
+        }
+        keysChanged = false;
+        entriesChanged = false;
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static class Entry {
+        final String type;
+        final Long id;
+        final String name;
+        final long popularity;
+        // Products only: where their sales count towards.
+        final Long brandId;
+        final Long categoryId;
+
+        Entry(String type, Long id, String name, long popularity, Long brandId, Long categoryId) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.popularity = popularity;
+            this.brandId = brandId;
+            this.categoryId = categoryId;
+        }
+    }
+
+    private record WordStart(String key, int owner) {
+    }
+
+    private static class Snapshot {
+        // Best first: most popular, then shortest name, then alphabetical.
+        private static final Comparator<Entry> RANK = Comparator.<Entry>comparingLong(e -> e.popularity).reversed()
+                .thenComparingInt(e -> e.name.length())
+                .thenComparing(e -> e.name);
+
+        final Entry[] entries;
+        final String[] keys;
+        final int[] owners;
+        // Only prefixes some key starts with, so its size is bounded by the dictionary, not by callers.
+        final Map<String, List<Entry>> memo = new ConcurrentHashMap<>();
+
+        Snapshot(Entry[] entries, String[] keys, int[] owners) {
+            this.entries = entries;
+            this.keys = keys;
+            this.owners = owners;
+        }
+
+        // Sorts every word start of every name, remembering which entry it belongs to.
+        static Snapshot build(Entry[] entries) {
+            List<WordStart> starts = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                String name = SearchTokenizer.normalize(entries[i].name);
+                Set<String> seen = new LinkedHashSet<>();
+                int pos = 0;
+                while (!name.isEmpty()) {
+                    if (seen.add(name.substring(pos))) {
+                        starts.add(new WordStart(name.substring(pos), i));
+                    }
+                    int space = name.indexOf(' ', pos);
+                    if (space < 0) {
+                        break;
+                    }
+                    pos = space + 1;
+                }
+            }
+            WordStart[] sorted = starts.toArray(new WordStart[0]);
+            Arrays.sort(sorted, Comparator.comparing(WordStart::key));
+            String[] keys = new String[sorted.length];
+            int[] owners = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key();
+                owners[i] = sorted[i].owner();
+            }
+            return new Snapshot(entries, keys, owners);
+        }
+
+        List<Entry> memoized(String prefix) {
+            List<Entry> cached = memo.get(prefix);
+            if (cached != null) {
+                return cached;
+            }
+            List<Entry> ranked = top(prefix, MAX_LIMIT);
+            if (ranked.isEmpty()) {
+                return ranked;
+            }
+            List<Entry> raced = memo.putIfAbsent(prefix, ranked);
+            return raced == null ? ranked : raced;
+        }
+
+        List<Entry> top(String prefix, int limit) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            // Min-heap of the best `limit` distinct entries seen so far.
+            PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, RANK.reversed());
+            Set<Integer> seen = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                if (seen.add(owners[i])) {
+                    best.add(entries[owners[i]]);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Entry> result = new ArrayList<>(best);
+            result.sort(RANK);
+            return result;
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
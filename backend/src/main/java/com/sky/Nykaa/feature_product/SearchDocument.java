@@ -0,0 +1,20 @@
+package com.sky.Nykaa.feature_product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The searchable text of one product, as fed into ProductSearchIndex.
+@Getter
+@AllArgsConstructor
+public class SearchDocument {
+    private Long id;
+    private String name;
+    private String description;
+    private String brandName;
+    private String categoryName;
+
+    public static SearchDocument of(Product product) {
+        return new SearchDocument(product.getId(), product.getName(), product.getDescription(),
+                product.getBrand().getName(), product.getCategory().getName());
+    }
+}
@@ -0,0 +1,58 @@
+package com.sky.Nykaa.feature_product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Turns product text and search queries into index terms: lower-cased, accents removed,
+// split on anything that is not a letter or digit, stop words dropped and plurals folded.
+public final class SearchTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        for (String raw : fold(text).split("[^\\p{L}\\p{Nd}]+")) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw)) {
+                continue;
+            }
+            tokens.add(stem(raw));
+        }
+        return tokens;
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses punctuation/whitespace to single spaces, keeping
+     * every word as typed. Used for prefix matching, where stemming would break partial words.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return fold(text).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+    }
+
+    private static String fold(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Very light plural folding so "lipsticks" finds "lipstick"; deliberately not a full stemmer.
+    private static String stem(String token) {
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
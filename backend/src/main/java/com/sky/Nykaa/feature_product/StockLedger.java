@@ -0,0 +1,374 @@
+// src/main/java/com/sky/Nykaa/feature_product/StockLedger.java
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock reservations for checkout. When payment starts, the cart's quantities are held
+ * for HOLD_TTL_MS; placing the order confirms the hold, and holds that are never confirmed are
+ * released by a sweeper. Holds and releases only change memory: products.stock_quantity is written
+ * once per order, with the net quantity sold (see OrderService and StockRepository).
+ *
+ * Per-SKU counters are guarded by STRIPES locks chosen by product id, so holds on different SKUs
+ * rarely contend and a multi-SKU hold takes its stripes in index order to stay deadlock-free.
+ * Like CartStore, the ledger assumes a single application instance.
+ */
+@Component
+public class StockLedger {
+
+    static final long HOLD_TTL_MS = TimeUnit.MINUTES.toMillis(15);
+    static final long SWEEP_INTERVAL_MS = 5_000;
+    private static final int STRIPES = 256;
+    private static final int UNKNOWN = -1;
+
+    @Autowired private StockRepository stockRepository;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<Long, Sku> skus = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    // Payment reference (the Razorpay order id) -> hold, and each user's current payment hold.
+    private final Map<String, Hold> holdsByReference = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holdsByOwner = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-ledger-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper.scheduleWithFixedDelay(() -> releaseExpired(System.currentTimeMillis()),
+                SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Holds the given quantities (product id -> units) for owner's checkout, replacing any payment
+     * hold the owner already had. A previous hold already claimed by an order being placed is left
+     * to that order. Throws if a product is missing or short of unheld stock.
+     */
+    public Hold hold(String owner, Map<Long, Integer> quantities) {
+        Hold previous = holdsByOwner.get(owner);
+        if (previous != null) {
+            release(previous);
+        }
+        Hold hold = reserve(owner, quantities, false);
+        holdsByOwner.put(owner, hold);
+        return hold;
+    }
+
+    /**
+     * Makes the hold claimable by the payment reference the client will send with its order.
+     */
+    public void attach(Hold hold, String reference) {
+        hold.reference = reference;
+        holdsByReference.put(reference, hold);
+    }
+
+    /**
+     * Claims stock for an order being placed. Uses the owner's hold for reference when it covers
+     * every line; otherwise holds the quantities now. A hold already claimed by another order for
+     * the same reference (a double submit) stays with that order. The caller must settle the
+     * returned hold once its transaction completes.
+     */
+    public Hold claim(String reference, String owner, Map<Long, Integer> quantities) {
+        Hold existing = reference == null ? null : holdsByReference.get(reference);
+        if (existing != null && owner.equals(existing.owner)) {
+            if (existing.tryClaim(quantities)) {
+                markConfirming(existing.ordered, 1);
+                return existing;
+            }
+            release(existing); // too small for this order; a no-op when it is claimed
+        }
+        Hold hold = reserve(owner, quantities, true);
+        hold.tryClaim(quantities);
+        markConfirming(quantities, 1);
+        return hold;
+    }
+
+    /**
+     * Finishes a claim. On commit the held units become sold units; on rollback a payment hold goes
+     * back to waiting for its order (until it expires) and a hold made for the order is released.
+     * Only the first settle of a claim has any effect.
+     */
+    public void settle(Hold hold, boolean committed) {
+        Hold.State next = committed ? Hold.State.DONE : hold.temporary ? Hold.State.RELEASED : Hold.State.HELD;
+        Map<Long, Integer> ordered = hold.finishClaim(next);
+        if (ordered == null) {
+            return;
+        }
+        if (!committed) {
+            markConfirming(ordered, -1);
+            if (next == Hold.State.RELEASED) {
+                giveBack(hold);
+            }
+            return;
+        }
+        forgetHold(hold);
+        List<Integer> order = stripesFor(hold.quantities.keySet());
+        lock(order);
+        try {
+            // In one critical section with the confirming count, so a concurrent reload can never
+            // cache a stock level that already includes this order and then have it subtracted again.
+            hold.quantities.forEach((productId, quantity) -> skus.get(productId).held -= quantity);
+            ordered.forEach((productId, quantity) -> {
+                Sku sku = skus.get(productId);
+                sku.confirming--;
+                if (sku.onHand != UNKNOWN) {
+                    sku.onHand -= quantity;
+                }
+            });
+        } finally {
+            unlock(order);
+        }
+    }
+
+    /**
+     * Gives the hold's units back if it is still waiting for its order. Safe to call more than once
+     * and from any state; a claimed hold is given back only by settling it.
+     */
+    public void release(Hold hold) {
+        if (hold.markReleased()) {
+            giveBack(hold);
+        }
+    }
+
+    private void giveBack(Hold hold) {
+        forgetHold(hold);
+        List<Integer> order = stripesFor(hold.quantities.keySet());
+        lock(order);
+        try {
+            hold.quantities.forEach((productId, quantity) -> skus.get(productId).held -= quantity);
+        } finally {
+            unlock(order);
+        }
+    }
+
+    /**
+     * Drops the cached stock level of a product whose stock_quantity was changed outside the ledger
+     * (an admin edit or a delete); the next hold reads it again. Held units are kept.
+     */
+    public void forget(Long productId) {
+        ReentrantLock lock = stripes[stripe(productId)];
+        lock.lock();
+        try {
+            Sku sku = skus.get(productId);
+            if (sku != null) {
+                sku.onHand = UNKNOWN;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Units of the product not held by any checkout, or -1 if the ledger has not loaded it yet.
+     */
+    public int available(Long productId) {
+        ReentrantLock lock = stripes[stripe(productId)];
+        lock.lock();
+        try {
+            Sku sku = skus.get(productId);
+            return sku == null || sku.onHand == UNKNOWN ? UNKNOWN : sku.onHand - sku.held;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void releaseExpired(long now) {
+        for (Hold hold : holds.values()) {
+            if (hold.expiresAt <= now && hold.state == Hold.State.HELD) {
+                release(hold);
+            }
+        }
+    }
+
+    private Hold reserve(String owner, Map<Long, Integer> quantities, boolean temporary) {
+        List<Integer> order = stripesFor(quantities.keySet());
+        lock(order);
+        try {
+            List<Long> unknown = new ArrayList<>();
+            for (Long productId : quantities.keySet()) {
+                Sku sku = skus.get(productId);
+                if (sku == null || sku.onHand == UNKNOWN) {
+                    unknown.add(productId);
+                }
+            }
+            // Only a first touch (or one after forget) reads the database, and only for those SKUs.
+            Map<Long, Integer> loaded = unknown.isEmpty() ? Map.of() : stockRepository.findStock(unknown);
+
+            Map<Long, Integer> onHand = new HashMap<>();
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                Long productId = line.getKey();
+                Sku sku = skus.computeIfAbsent(productId, id -> new Sku());
+                int stock = sku.onHand;
+                if (stock == UNKNOWN) {
+                    Integer fromDb = loaded.get(productId);
+                    if (fromDb == null) {
+                        throw new ResourceNotFoundException("Product not found: " + productId);
+                    }
+                    stock = fromDb;
+                    // While an order for this SKU is committing, the value read may or may not include
+                    // its decrement; use it for this check (it can only err low) but do not cache it.
+                    if (sku.confirming == 0) {
+                        sku.onHand = stock;
+                    }
+                }
+                onHand.put(productId, stock);
+            }
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                if (onHand.get(line.getKey()) - skus.get(line.getKey()).held < line.getValue()) {
+                    throw new IllegalStateException("Not enough stock for product: " + line.getKey());
+                }
+            }
+            quantities.forEach((productId, quantity) -> skus.get(productId).held += quantity);
+        } finally {
+            unlock(order);
+        }
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), owner, Map.copyOf(quantities), temporary,
+                System.currentTimeMillis() + HOLD_TTL_MS);
+        holds.put(hold.id, hold);
+        return hold;
+    }
+
+    private void markConfirming(Map<Long, Integer> productIds, int delta) {
+        List<Integer> order = stripesFor(productIds.keySet());
+        lock(order);
+        try {
+            productIds.keySet().forEach(productId -> skus.get(productId).confirming += delta);
+        } finally {
+            unlock(order);
+        }
+    }
+
+    private void forgetHold(Hold hold) {
+        holds.remove(hold.id);
+        if (hold.reference != null) {
+            holdsByReference.remove(hold.reference, hold);
+        }
+        holdsByOwner.remove(hold.owner, hold);
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), STRIPES);
+    }
+
+    private static List<Integer> stripesFor(Iterable<Long> productIds) {
+        TreeSet<Integer> order = new TreeSet<>();
+        productIds.forEach(productId -> order.add(stripe(productId)));
+        return new ArrayList<>(order);
+    }
+
+    private void lock(List<Integer> order) {
+        order.forEach(i -> stripes[i].lock());
+    }
+
+    private void unlock(List<Integer> order) {
+        for (int i = order.size() - 1; i >= 0; i--) {
+            stripes[order.get(i)].unlock();
+        }
+    }
+
+    // Guarded by the SKU's stripe lock.
+    private static class Sku {
+        int onHand = UNKNOWN;   // products.stock_quantity as last read or maintained by settle
+        int held;               // units in live holds, including claimed ones not yet settled
+        int confirming;         // claims whose order transaction has not completed
+    }
+
+    /**
+     * Units held for one checkout. Opaque outside the ledger.
+     */
+    public static class Hold {
+
+        enum State { HELD, CLAIMED, RELEASED, DONE }
+
+        final String id;
+        final String owner;
+        final Map<Long, Integer> quantities;
+        final boolean temporary;
+        final long expiresAt;
+        volatile String reference;
+        volatile State state = State.HELD;
+        Map<Long, Integer> ordered = Map.of();
+
+        Hold(String id, String owner, Map<Long, Integer> quantities, boolean temporary, long expiresAt) {
+            this.id = id;
+            this.owner = owner;
+            this.quantities = quantities;
+            this.temporary = temporary;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized boolean tryClaim(Map<Long, Integer> order) {
+            if (state != State.HELD) {
+                return false;
+            }
+            for (Map.Entry<Long, Integer> line : order.entrySet()) {
+                if (quantities.getOrDefault(line.getKey(), 0) < line.getValue()) {
+                    return false;
+                }
+            }
+            ordered = Map.copyOf(order);
+            state = State.CLAIMED;
+            return true;
+        }
+
+        // Moves a claimed hold to next and returns what was ordered, or null if it was not claimed.
+        synchronized Map<Long, Integer> finishClaim(State next) {
+            if (state != State.CLAIMED) {
+                return null;
+            }
+            Map<Long, Integer> claimed = ordered;
+            state = next;
+            if (next == State.HELD) {
+                ordered = Map.of();
+            }
+            return claimed;
+        }
+
+        synchronized boolean markReleased() {
+            if (state != State.HELD) {
+                return false;
+            }
+            state = State.RELEASED;
+            return true;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// src/main/java/com/sky/Nykaa/feature_product/StockRepository.java
+package com.sky.Nykaa.feature_product;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plain JDBC access to products.stock_quantity. Each decrement is conditional on enough stock being left, so the check
+ * and the write are one atomic statement and concurrent checkouts cannot oversell.
+ */
+@Repository
+public class StockRepository {
+
+    private static final String DECREMENT_SQL = "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = ? " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Current stock_quantity of each given product that exists.
+     */
+    public Map<Long, Integer> findStock(Collection<Long> productIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query("SELECT id, stock_quantity FROM products WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    stock.put(rs.getLong("id"), rs.getInt("stock_quantity"));
+                }, productIds.toArray());
+        return stock;
+    }
+
+    /**
+     * Takes the given quantities (product id -> units) out of stock in one JDBC batch and returns
+     * the ids whose row was not updated: not enough stock, or no such product. The caller must be
+     * in a transaction and roll it back when the list is not empty, which undoes the other rows.
+     */
+    public List<Long> decrement(Map<Long, Integer> quantities) {
+        // Always lock rows in id order so two multi-item checkouts cannot deadlock each other.
+        TreeMap<Long, Integer> ordered = new TreeMap<>(quantities);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        ordered.forEach((productId, quantity) -> args.add(new Object[]{quantity, now, productId, quantity}));
+
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+        List<Long> failed = new ArrayList<>();
+        int i = 0;
+        for (Long productId : ordered.keySet()) {
+            if (counts[i++] == 0) {
+                failed.add(productId);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,103 @@
+// src/main/java/com/sky/Nykaa/feature_product/TaxonomyCache.java
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.feature_product.dto.TaxonomyDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * In-memory snapshot of the category and brand lists with their product counts.
+ * Each list is loaded lazily with one grouped query and then kept current by ProductService:
+ * category/brand writes drop only the affected list, while product creates, moves and deletes
+ * patch the counts in place. A load that overlaps a write is served but not kept.
+ */
+@Component
+public class TaxonomyCache {
+
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+
+    private final Slot categories = new Slot();
+    private final Slot brands = new Slot();
+
+    public List<TaxonomyDto> getCategories() {
+        return categories.get(categoryRepository::findAllWithProductCounts);
+    }
+
+    public List<TaxonomyDto> getBrands() {
+        return brands.get(brandRepository::findAllWithProductCounts);
+    }
+
+    public void invalidateCategories() {
+        categories.invalidate();
+    }
+
+    public void invalidateBrands() {
+        brands.invalidate();
+    }
+
+    /**
+     * Adjusts product counts after a product was added (delta 1) or removed (delta -1).
+     */
+    public void productAdded(Long categoryId, Long brandId, int delta) {
+        categories.adjust(categoryId, delta);
+        brands.adjust(brandId, delta);
+    }
+
+    public void productMoved(Long oldCategoryId, Long newCategoryId, Long oldBrandId, Long newBrandId) {
+        if (!oldCategoryId.equals(newCategoryId)) {
+            categories.adjust(oldCategoryId, -1);
+            categories.adjust(newCategoryId, 1);
+        }
+        if (!oldBrandId.equals(newBrandId)) {
+            brands.adjust(oldBrandId, -1);
+            brands.adjust(newBrandId, 1);
+        }
+    }
+
+    private static class Slot {
+        private List<TaxonomyDto> snapshot;
+        private long generation;
+
+        List<TaxonomyDto> get(Supplier<List<TaxonomyDto>> loader) {
+            long startedAt;
+            synchronized (this) {
+                if (snapshot != null) {
+                    return snapshot;
+                }
+                startedAt = generation;
+            }
+            List<TaxonomyDto> loaded = List.copyOf(loader.get());
+            synchronized (this) {
+                if (generation == startedAt) {
+                    snapshot = loaded;
+                }
+            }
+            return loaded;
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            snapshot = null;
+        }
+
+        synchronized void adjust(Long id, int delta) {
+            generation++;
+            if (snapshot == null) {
+                return;
+            }
+            List<TaxonomyDto> patched = new ArrayList<>(snapshot.size());
+            for (TaxonomyDto dto : snapshot) {
+                if (dto.getId().equals(id)) {
+                    dto = new TaxonomyDto(dto.getId(), dto.getName(), dto.getImage(), dto.getProductCount() + delta);
+                }
+                patched.add(dto);
+            }
+            snapshot = List.copyOf(patched);
+        }
+    }
+}
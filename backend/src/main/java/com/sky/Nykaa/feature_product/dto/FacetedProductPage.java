@@ -0,0 +1,14 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+// A page of products together with the facet counts of the same filter set.
+// facets is null while the catalog index is still loading.
+@Data
+@AllArgsConstructor
+public class FacetedProductPage {
+    private Page<ProductDto> products;
+    private ProductFacetsDto facets;
+}
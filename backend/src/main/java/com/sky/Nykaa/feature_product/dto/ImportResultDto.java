@@ -0,0 +1,24 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Outcome of a bulk catalog import. Rows are numbered from 1, not counting a CSV header.
+// Only the first errors are listed; errorCount always holds the full number.
+@Data
+@AllArgsConstructor
+public class ImportResultDto {
+    private long rowsRead;
+    private long rowsImported;
+    private long errorCount;
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
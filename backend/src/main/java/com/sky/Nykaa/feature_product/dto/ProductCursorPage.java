@@ -0,0 +1,16 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One slice of a keyset-paginated product listing. There is deliberately no total count;
+// pass nextCursor back as "after" to fetch the following slice.
+@Data
+@AllArgsConstructor
+public class ProductCursorPage {
+    private List<ProductDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,9 +1,15 @@
 package com.sky.Nykaa.feature_product.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
+// The all-args constructor is used by JPQL constructor expressions in ProductRepository,
+// so keep the field order in sync with those queries.
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductDto {
     private Long id;
     private String name;
@@ -0,0 +1,27 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Facet counts for the sidebar, e.g. "Maybelline (42)".
+// Each facet is counted with every filter applied except its own, so selecting
+// one brand still shows how many products the other brands would add.
+@Data
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min;
+        private BigDecimal max; // exclusive; null for the open-ended top bucket
+        private long count;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One search-as-you-type suggestion. type is PRODUCT, BRAND or CATEGORY.
+@Data
+@AllArgsConstructor
+public class SuggestionDto {
+    private String type;
+    private Long id;
+    private String text;
+}
@@ -0,0 +1,15 @@
+package com.sky.Nykaa.feature_product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Lightweight view of a category or brand for sidebars and admin lists:
+// no product collection, just how many products it has.
+@Data
+@AllArgsConstructor
+public class TaxonomyDto {
+    private Long id;
+    private String name;
+    private String image;
+    private Long productCount;
+}
@@ -0,0 +1,230 @@
+// src/main/java/com/sky/Nykaa/feature_user/AddressBook.java
+package com.sky.Nykaa.feature_user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.OutboxMessage;
+import com.sky.Nykaa.common.OutboxSubscriber;
+import com.sky.Nykaa.feature_order.OrderEvents;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Each user's saved shipping addresses, most recently used first. The saved_addresses table is
+ * updated from ORDER_PLACED outbox events, so the checkout page reads at most MAX_ADDRESSES rows
+ * of one user instead of scanning their orders; recently read lists are also kept in an LRU cache.
+ */
+@Component
+public class AddressBook implements OutboxSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(AddressBook.class);
+
+    static final int MAX_ADDRESSES = 10;
+    static final int MAX_CACHED_USERS = 10_000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SPACE_AROUND_PUNCTUATION = Pattern.compile(" ?([,.;:#/-]) ?");
+    private static final Pattern REPEATED_PUNCTUATION = Pattern.compile("([,.;:])\\1+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[,.;:]+$");
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO saved_addresses (user_id, address, address_hash, last_used_at) " +
+            "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM saved_addresses WHERE user_id = ? AND address_hash = ?)";
+
+    @Autowired private SavedAddressRepository savedAddressRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ObjectMapper objectMapper;
+
+    private TransactionTemplate writeTransaction;
+
+    // userId -> hash -> address, most recently used first. Guarded by itself.
+    private final Map<Long, LinkedHashMap<String, String>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, LinkedHashMap<String, String>> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+    // userId -> token of a read loading the user's list outside the lock. A write for the user drops the
+    // token, so a list read before the write is returned but not cached. Guarded by cache.
+    private final Map<Long, Object> loading = new HashMap<>();
+
+    @PostConstruct
+    void start() {
+        // Runs inside the outbox dispatch transaction, which it must not join.
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The user's saved addresses, most recently used first.
+     */
+    public List<String> addresses(Long userId) {
+        Object token = new Object();
+        synchronized (cache) {
+            LinkedHashMap<String, String> cached = cache.get(userId);
+            if (cached != null) {
+                return new ArrayList<>(cached.values());
+            }
+            loading.put(userId, token);
+        }
+        LinkedHashMap<String, String> loaded = new LinkedHashMap<>();
+        try {
+            savedAddressRepository.findTop10ByUserIdOrderByLastUsedAtDesc(userId)
+                    .forEach(saved -> loaded.put(saved.getAddressHash(), saved.getAddress()));
+        } catch (RuntimeException e) {
+            synchronized (cache) {
+                loading.remove(userId, token);
+            }
+            throw e;
+        }
+        synchronized (cache) {
+            if (loading.remove(userId, token)) {
+                cache.putIfAbsent(userId, loaded);
+            }
+        }
+        return new ArrayList<>(loaded.values());
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OrderEvents.ORDER_PLACED);
+    }
+
+    /**
+     * Records that the user shipped to the order's address: a new entry, or the existing one with the
+     * same normalized form moved to the front (and updated to this spelling). Written in a transaction
+     * of its own, so a failure here is retried by the outbox instead of affecting the dispatch batch.
+     */
+    @Override
+    public void handle(OutboxMessage message) throws Exception {
+        OrderEvents.Placed order = objectMapper.readValue(message.getPayload(), OrderEvents.Placed.class);
+        String address = order.getShippingAddress();
+        if (address == null || address.isBlank()) {
+            return;
+        }
+        String hash = hash(address);
+        try {
+            save(order.getUserId(), address, hash);
+        } catch (DataIntegrityViolationException e) {
+            save(order.getUserId(), address, hash); // a concurrent delivery inserted the same address first
+        }
+        remember(order.getUserId(), address, hash);
+    }
+
+    private void save(Long userId, String address, String hash) {
+        writeTransaction.executeWithoutResult(status -> {
+            SavedAddress saved = savedAddressRepository.findByUserIdAndAddressHash(userId, hash).orElseGet(() -> {
+                SavedAddress created = new SavedAddress();
+                created.setUserId(userId);
+                created.setAddressHash(hash);
+                return created;
+            });
+            saved.setAddress(address);
+            saved.setLastUsedAt(LocalDateTime.now());
+            savedAddressRepository.save(saved);
+        });
+    }
+
+    // Moves the address to the front of a cached list; lists not cached are read from the table next time,
+    // and a read already loading one (possibly from before this write) will not cache it.
+    private void remember(Long userId, String address, String hash) {
+        synchronized (cache) {
+            LinkedHashMap<String, String> cached = cache.get(userId);
+            if (cached == null) {
+                loading.remove(userId);
+                return;
+            }
+            LinkedHashMap<String, String> updated = new LinkedHashMap<>();
+            updated.put(hash, address);
+            cached.forEach((otherHash, other) -> {
+                if (updated.size() < MAX_ADDRESSES) {
+                    updated.putIfAbsent(otherHash, other);
+                }
+            });
+            cache.put(userId, updated);
+        }
+    }
+
+    /**
+     * Case, Unicode form, whitespace and spacing around punctuation do not make an address different.
+     */
+    static String normalize(String address) {
+        String text = Normalizer.normalize(address, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).trim();
+        text = WHITESPACE.matcher(text).replaceAll(" ");
+        text = SPACE_AROUND_PUNCTUATION.matcher(text).replaceAll("$1");
+        text = REPEATED_PUNCTUATION.matcher(text).replaceAll("$1");
+        return TRAILING_PUNCTUATION.matcher(text).replaceAll("");
+    }
+
+    static String hash(String address) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(address).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One-time fill from past orders when the table is still empty (the first start after it was added).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM saved_addresses)", Boolean.class);
+        if (!Boolean.TRUE.equals(empty)) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        int[] inserted = {0};
+        jdbcTemplate.query("SELECT user_id, shipping_address, MAX(order_date) AS last_used_at FROM orders " +
+                "GROUP BY user_id, shipping_address", rs -> {
+            long userId = rs.getLong("user_id");
+            String address = rs.getString("shipping_address");
+            String hash = hash(address);
+            Timestamp lastUsedAt = rs.getTimestamp("last_used_at");
+            batch.add(new Object[]{userId, address, hash, lastUsedAt, userId, hash});
+            if (batch.size() == 1_000) {
+                inserted[0] += flush(batch);
+            }
+        });
+        inserted[0] += flush(batch);
+        if (inserted[0] > 0) {
+            log.info("Address book filled with {} addresses from past orders", inserted[0]);
+        }
+    }
+
+    // Near-duplicates of one user collapse onto the first row inserted for their hash.
+    private int flush(List<Object[]> batch) {
+        int count = 0;
+        for (int rows : jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, batch)) {
+            count += Math.max(rows, 0);
+        }
+        batch.clear();
+        return count;
+    }
+}
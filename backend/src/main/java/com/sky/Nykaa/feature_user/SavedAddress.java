@@ -0,0 +1,38 @@
+// src/main/java/com/sky/Nykaa/feature_user/SavedAddress.java
+package com.sky.Nykaa.feature_user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// One entry of a user's address book, maintained by AddressBook as orders are placed.
+// Addresses that normalize to the same text share a row (see AddressBook.normalize).
+@Entity
+@Table(name = "saved_addresses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_saved_addresses_user_hash", columnNames = {"user_id", "address_hash"}),
+        indexes = @Index(name = "idx_saved_addresses_user_last_used", columnList = "user_id, last_used_at"))
+@Getter
+@Setter
+public class SavedAddress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // A plain column rather than a relation: the address book never needs the user row.
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // The address as the user last typed it.
+    @Column(nullable = false, length = 512)
+    private String address;
+
+    // SHA-256 of the normalized address.
+    @Column(name = "address_hash", nullable = false, length = 64)
+    private String addressHash;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+}
@@ -0,0 +1,15 @@
+package com.sky.Nykaa.feature_user;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SavedAddressRepository extends JpaRepository<SavedAddress, Long> {
+
+    Optional<SavedAddress> findByUserIdAndAddressHash(Long userId, String addressHash);
+
+    List<SavedAddress> findTop10ByUserIdOrderByLastUsedAtDesc(Long userId);
+}
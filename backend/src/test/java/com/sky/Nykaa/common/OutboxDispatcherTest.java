@@ -0,0 +1,97 @@
+package com.sky.Nykaa.common;
+
+import com.sky.Nykaa.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context (and so its own H2 database and dispatcher counters).
+@QueryCountTest
+@DirtiesContext
+@WithMockUser(username = "admin@example.com", roles = "ADMIN")
+class OutboxDispatcherTest {
+
+    static final String EVENT = "OUTBOX_TEST";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private Outbox outbox;
+    @Autowired private OutboxDispatcher outboxDispatcher;
+    @Autowired private FlakySubscriber subscriber;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class Subscribers {
+        @Bean
+        FlakySubscriber flakySubscriber() {
+            return new FlakySubscriber();
+        }
+    }
+
+    // Fails the first delivery of every event, then records it.
+    static class FlakySubscriber implements OutboxSubscriber {
+        final List<Long> attempted = new CopyOnWriteArrayList<>();
+        final List<String> handled = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Set<String> eventTypes() {
+            return Set.of(EVENT);
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            if (!attempted.contains(message.getId())) {
+                attempted.add(message.getId());
+                throw new IllegalStateException("first delivery fails");
+            }
+            handled.add(message.getPayload());
+        }
+    }
+
+    @Test
+    void eventsAreDeliveredAtLeastOnceAfterTheirTransactionCommits() throws Exception {
+        assertThrows(IllegalStateException.class, () -> outbox.publish(EVENT, 1L, Map.of("n", 0)));
+        assertThrows(RuntimeException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(EVENT, 1L, Map.of("n", 1));
+            throw new RuntimeException("rolled back");
+        }));
+        transactionTemplate.executeWithoutResult(status -> outbox.publish(EVENT, 2L, Map.of("n", 2)));
+
+        outboxDispatcher.dispatchPending();
+        assertEquals(1, subscriber.attempted.size());
+
+        // Skip the backoff instead of waiting for it.
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_at = CURRENT_TIMESTAMP WHERE type = ?", EVENT);
+        outboxDispatcher.dispatchPending();
+        // Only the committed event, delivered again after its failure.
+        assertEquals(List.of("{\"n\":2}"), subscriber.handled);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error, dispatched_at FROM outbox_events WHERE type = ?", EVENT);
+        assertEquals(2, ((Number) row.get("attempts")).intValue());
+        assertNotNull(row.get("dispatched_at"));
+
+        mockMvc.perform(get("/api/outbox/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending").value(0))
+                .andExpect(jsonPath("$.dead").value(0))
+                .andExpect(jsonPath("$.failedAttempts").value(1));
+    }
+}
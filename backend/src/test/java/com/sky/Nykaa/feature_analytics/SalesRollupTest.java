@@ -0,0 +1,127 @@
+package com.sky.Nykaa.feature_analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.OutboxDispatcher;
+import com.sky.Nykaa.feature_product.Brand;
+import com.sky.Nykaa.feature_product.BrandRepository;
+import com.sky.Nykaa.feature_product.Category;
+import com.sky.Nykaa.feature_product.CategoryRepository;
+import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_user.User;
+import com.sky.Nykaa.feature_user.UserRepository;
+import com.sky.Nykaa.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context (and so its own H2 database): the rollups must start empty.
+@QueryCountTest
+@DirtiesContext
+@WithMockUser(username = "admin@example.com", roles = "ADMIN")
+class SalesRollupTest {
+
+    static final String EMAIL = "sales-rollup@example.com";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private OutboxDispatcher outboxDispatcher;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+
+    @Test
+    void rollupsFollowOrdersAndCancellationsAndRebuildToTheSameTotals() throws Exception {
+        User user = new User();
+        user.setFirstName("Sales");
+        user.setLastName("Rollup");
+        user.setEmail(EMAIL);
+        user.setPassword("x");
+        user.setRole("USER");
+        userRepository.save(user);
+        Category category = new Category();
+        category.setName("Rollup Category");
+        category = categoryRepository.save(category);
+        Long lipstick = product("Rollup Lipstick", "Rollup Brand A", category, 100);
+        Long serum = product("Rollup Serum", "Rollup Brand B", category, 50);
+
+        placeOrder("[{\"productId\":" + lipstick + ",\"quantity\":2},{\"productId\":" + serum + ",\"quantity\":1}]");
+        placeOrder("[{\"productId\":" + lipstick + ",\"quantity\":1}]");
+        long cancelled = placeOrder("[{\"productId\":" + serum + ",\"quantity\":3}]");
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CANCELLED\",\"orderIds\":[" + cancelled + "]}"))
+                .andExpect(jsonPath("$.updated").value(1));
+        outboxDispatcher.dispatchPending();
+
+        assertTotals();
+
+        jdbcTemplate.update("UPDATE sales_rollups SET units = 0, revenue = 0, order_count = 0");
+        mockMvc.perform(post("/api/analytics/sales/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders").value(2));
+        assertTotals();
+
+        // Reported before the rebuild scanned it: counted once, not again when the report is delivered.
+        placeOrder("[{\"productId\":" + lipstick + ",\"quantity\":1}]");
+        mockMvc.perform(post("/api/analytics/sales/rebuild"))
+                .andExpect(jsonPath("$.orders").value(3));
+        outboxDispatcher.dispatchPending();
+        mockMvc.perform(get("/api/analytics/sales"))
+                .andExpect(jsonPath("$[0].units").value(5))
+                .andExpect(jsonPath("$[0].revenue").value(450.0))
+                .andExpect(jsonPath("$[0].orders").value(3));
+    }
+
+    private void assertTotals() throws Exception {
+        mockMvc.perform(get("/api/analytics/sales"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].units").value(4))
+                .andExpect(jsonPath("$[0].revenue").value(350.0))
+                .andExpect(jsonPath("$[0].orders").value(2));
+        mockMvc.perform(get("/api/analytics/sales/top").param("dimension", "brand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Rollup Brand A"))
+                .andExpect(jsonPath("$[0].units").value(3))
+                .andExpect(jsonPath("$[0].revenue").value(300.0))
+                .andExpect(jsonPath("$[0].orders").value(2))
+                .andExpect(jsonPath("$[1].name").value("Rollup Brand B"))
+                .andExpect(jsonPath("$[1].units").value(1));
+    }
+
+    private Long product(String name, String brandName, Category category, int price) {
+        Brand brand = new Brand();
+        brand.setName(brandName);
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(price));
+        product.setStockQuantity(50);
+        product.setCategory(category);
+        product.setBrand(brandRepository.save(brand));
+        return productRepository.save(product).getId();
+    }
+
+    private long placeOrder(String items) throws Exception {
+        String body = mockMvc.perform(post("/api/orders").with(user(EMAIL)).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shippingAddress\":\"1 Rollup Road\",\"items\":" + items + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,135 @@
+package com.sky.Nykaa.feature_cart;
+
+import com.sky.Nykaa.feature_cart.dto.AddItemRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Parallel clients adding the same product to the same cart, three ways:
+//   legacy - the old JPA path: load the cart aggregate, find the line in Java, save
+//   upsert - one INSERT ... ON CONFLICT DO UPDATE SET quantity = cart_items.quantity + ? per add
+//   store  - CartService on top of the write-behind CartStore, then one flush
+// Prints elapsed time, failed adds and how many increments were lost.
+// Needs PostgreSQL (ON CONFLICT). Run with: mvn test -Dtest=CartAddBenchmark -Dbenchmark=true
+// The seeded user, catalog rows and cart are deleted afterwards.
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CartAddBenchmark {
+
+    private static final int CLIENTS = 16;
+    private static final int ADDS_PER_CLIENT = 200;
+    private static final String EMAIL = "bench-cart@example.com";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private CartService cartService;
+    @Autowired private CartStore cartStore;
+
+    private long userId;
+    private long cartId;
+    private long productId;
+    private long lineId;
+
+    @BeforeEach
+    void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, password, role, created_at) VALUES ('Bench', 'Cart', ?, 'x', 'USER', ?)", EMAIL, now);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, EMAIL);
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('bench-cart-category')");
+        jdbcTemplate.update("INSERT INTO brands (name) VALUES ('bench-cart-brand')");
+        jdbcTemplate.update("INSERT INTO products (name, price, stock_quantity, category_id, brand_id, created_at) " +
+                "SELECT 'bench-cart-product', 100, 10, c.id, b.id, ? FROM categories c, brands b " +
+                "WHERE c.name = 'bench-cart-category' AND b.name = 'bench-cart-brand'", now);
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE name = 'bench-cart-product'", Long.class);
+        jdbcTemplate.update("INSERT INTO carts (user_id, version) VALUES (?, 0)", userId);
+        cartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, userId);
+        lineId = cartStore.nextLineId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartStore.clear(userId);
+        cartStore.flush();
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ?", cartId);
+        jdbcTemplate.update("DELETE FROM carts WHERE id = ?", cartId);
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM categories WHERE name = 'bench-cart-category'");
+        jdbcTemplate.update("DELETE FROM brands WHERE name = 'bench-cart-brand'");
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void parallelAddsToOneCart() throws Exception {
+        resetLine();
+        run("legacy", () -> transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findById(cartId).orElseThrow();
+            CartItem item = cart.getCartItems().stream()
+                    .filter(i -> i.getProduct().getId().equals(productId))
+                    .findFirst()
+                    .orElseThrow();
+            item.setQuantity(item.getQuantity() + 1);
+            cartRepository.save(cart);
+        }));
+
+        resetLine();
+        run("upsert", () -> jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity",
+                lineId, cartId, productId, 1));
+
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ?", cartId);
+        AddItemRequest request = new AddItemRequest();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        run("store", () -> cartService.addItemToCart(EMAIL, request, null));
+    }
+
+    private void resetLine() {
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ?", cartId);
+        jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, 0)", lineId, cartId, productId);
+    }
+
+    private void run(String name, Runnable add) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> clients = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.add(pool.submit(() -> {
+                for (int i = 0; i < ADDS_PER_CLIENT; i++) {
+                    try {
+                        add.run();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        cartStore.flush();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        pool.shutdown();
+
+        Integer quantity = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM cart_items WHERE cart_id = ?", Integer.class, cartId);
+        int expected = CLIENTS * ADDS_PER_CLIENT - failures.get();
+        System.out.printf("%-6s %6d ms  failed adds: %4d  lost increments: %4d%n",
+                name, elapsedMs, failures.get(), expected - quantity);
+    }
+}
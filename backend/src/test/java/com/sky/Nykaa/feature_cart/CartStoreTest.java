@@ -0,0 +1,245 @@
+package com.sky.Nykaa.feature_cart;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.feature_product.Brand;
+import com.sky.Nykaa.feature_product.BrandRepository;
+import com.sky.Nykaa.feature_product.Category;
+import com.sky.Nykaa.feature_product.CategoryRepository;
+import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_user.User;
+import com.sky.Nykaa.feature_user.UserRepository;
+import com.sky.Nykaa.support.QueryCountTest;
+import com.sky.Nykaa.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context (and so its own H2 database): the rows it seeds would skew the catalog count tests.
+@QueryCountTest
+@DirtiesContext
+@WithMockUser(username = CartStoreTest.EMAIL)
+class CartStoreTest {
+
+    static final String EMAIL = "cart-store@example.com";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CartStore cartStore;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            User user = new User();
+            user.setFirstName("Cart");
+            user.setLastName("Store");
+            user.setEmail(EMAIL);
+            user.setPassword("x");
+            user.setRole("USER");
+            userRepository.save(user);
+        }
+        Category category = new Category();
+        category.setName("Cart Category " + System.nanoTime());
+        Brand brand = new Brand();
+        brand.setName("Cart Brand " + System.nanoTime());
+        Product product = new Product();
+        product.setName("Cart Product");
+        product.setPrice(BigDecimal.valueOf(250));
+        product.setStockQuantity(5);
+        product.setCategory(categoryRepository.save(category));
+        product.setBrand(brandRepository.save(brand));
+        productId = productRepository.save(product).getId();
+    }
+
+    @Test
+    void cartIsServedFromMemoryAndFlushedBehind() throws Exception {
+        mockMvc.perform(post("/api/cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":2}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":1}"))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.reset();
+        String body = mockMvc.perform(get("/api/cart"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(0, SqlStatementCounter.count());
+
+        JsonNode line = null;
+        for (JsonNode item : objectMapper.readTree(body).get("cartItems")) {
+            if (item.get("product").get("id").asLong() == productId) {
+                line = item;
+            }
+        }
+        assertEquals(3, line.get("quantity").asInt());
+        long lineId = line.get("id").asLong();
+
+        cartStore.flush();
+        Integer quantity = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE id = ? AND product_id = ?", Integer.class, lineId, productId);
+        assertEquals(3, quantity);
+    }
+
+    @Test
+    void patchAppliesAllOperationsOrNone() throws Exception {
+        mockMvc.perform(patch("/api/cart").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"op\":\"add\",\"productId\":" + productId + ",\"quantity\":1}," +
+                                "{\"op\":\"update\",\"productId\":" + productId + ",\"quantity\":4}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems[?(@.product.id == " + productId + ")].quantity").value(4));
+
+        mockMvc.perform(patch("/api/cart").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"op\":\"remove\",\"productId\":" + productId + "}," +
+                                "{\"op\":\"update\",\"cartItemId\":-1,\"quantity\":2}]}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/cart"))
+                .andExpect(jsonPath("$.cartItems[?(@.product.id == " + productId + ")].quantity").value(4));
+    }
+
+    @Test
+    void versionedCartAnswersConditionalRequests() throws Exception {
+        String etag = mockMvc.perform(get("/api/cart"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/cart").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String newEtag = mockMvc.perform(post("/api/cart/items").header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changedItems.length()").value(1))
+                .andExpect(jsonPath("$.changedItems[0].product.id").value(productId))
+                .andExpect(jsonPath("$.removedItemIds.length()").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/api/cart/items").header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":1}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/cart").header("If-None-Match", newEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "cart-hydration@example.com")
+    void coldCartLoadsInOneStatement() throws Exception {
+        User user = new User();
+        user.setFirstName("Cart");
+        user.setLastName("Hydration");
+        user.setEmail("cart-hydration@example.com");
+        user.setPassword("x");
+        user.setRole("USER");
+        user = userRepository.save(user);
+        jdbcTemplate.update("INSERT INTO carts (user_id, version) VALUES (?, 0)", user.getId());
+        Long cartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, user.getId());
+        List<Product> products = productRepository.findAll();
+        for (Product product : products) {
+            jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, 1)",
+                    cartStore.nextLineId(), cartId, product.getId());
+        }
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/cart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.length()").value(products.size()))
+                .andExpect(jsonPath("$.cartItems[0].product.brandName").exists());
+        // One lookup of the user id by email, one hydration query.
+        assertEquals(2, SqlStatementCounter.count());
+    }
+
+    @Test
+    @WithMockUser(username = "cart-duplicates@example.com")
+    void duplicateLinesFromOlderDataAreMergedOnLoad() throws Exception {
+        User user = new User();
+        user.setFirstName("Cart");
+        user.setLastName("Duplicates");
+        user.setEmail("cart-duplicates@example.com");
+        user.setPassword("x");
+        user.setRole("USER");
+        user = userRepository.save(user);
+        jdbcTemplate.update("INSERT INTO carts (user_id, version) VALUES (?, 0)", user.getId());
+        Long cartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, user.getId());
+        // As saved before the unique constraint existed.
+        jdbcTemplate.execute("ALTER TABLE cart_items DROP CONSTRAINT uk_cart_items_cart_product");
+        long keptId = cartStore.nextLineId();
+        jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, 1)", keptId, cartId, productId);
+        jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, 2)",
+                cartStore.nextLineId(), cartId, productId);
+
+        mockMvc.perform(get("/api/cart"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.length()").value(1))
+                .andExpect(jsonPath("$.cartItems[0].id").value(keptId))
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(3));
+        mockMvc.perform(post("/api/cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":1}"))
+                .andExpect(status().isOk());
+        cartStore.flush();
+
+        assertEquals(List.of(4), jdbcTemplate.queryForList(
+                "SELECT quantity FROM cart_items WHERE cart_id = ?", Integer.class, cartId));
+        jdbcTemplate.execute("ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id)");
+    }
+
+    @Test
+    void aCartTheDatabaseRejectsDoesNotBlockTheOthers() throws Exception {
+        User other = new User();
+        other.setFirstName("Cart");
+        other.setLastName("Quarantine");
+        other.setEmail("cart-quarantine@example.com");
+        other.setPassword("x");
+        other.setRole("USER");
+        userRepository.save(other);
+        Product doomed = productRepository.findById(productId).orElseThrow();
+        Product kept = new Product();
+        kept.setName("Cart Product Kept");
+        kept.setPrice(BigDecimal.valueOf(100));
+        kept.setStockQuantity(5);
+        kept.setCategory(doomed.getCategory());
+        kept.setBrand(doomed.getBrand());
+        Long keptId = productRepository.save(kept).getId();
+
+        mockMvc.perform(post("/api/cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + keptId + ",\"quantity\":1}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/items").with(user("cart-quarantine@example.com"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":1}"))
+                .andExpect(status().isOk());
+        // Deleted behind the store's back, so the other cart's insert breaks the foreign key.
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+
+        cartStore.flush();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE product_id = ?", Integer.class, keptId));
+        mockMvc.perform(get("/api/cart").with(user("cart-quarantine@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.length()").value(0));
+    }
+}
@@ -0,0 +1,246 @@
+package com.sky.Nykaa.feature_order;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.common.OutboxDispatcher;
+import com.sky.Nykaa.feature_product.Brand;
+import com.sky.Nykaa.feature_product.BrandRepository;
+import com.sky.Nykaa.feature_product.Category;
+import com.sky.Nykaa.feature_product.CategoryRepository;
+import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_user.User;
+import com.sky.Nykaa.feature_user.UserRepository;
+import com.sky.Nykaa.support.QueryCountTest;
+import com.sky.Nykaa.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context (and so its own H2 database): the rows it seeds would skew the catalog count tests.
+@QueryCountTest
+@DirtiesContext
+@WithMockUser(username = OrderHistoryTest.EMAIL)
+class OrderHistoryTest {
+
+    static final String EMAIL = "order-history@example.com";
+    static final String OTHER_EMAIL = "someone-else@example.com";
+    static final String ADDRESS_EMAIL = "address-book@example.com";
+    static final String BULK_EMAIL = "bulk-status@example.com";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+    @Autowired private OutboxDispatcher outboxDispatcher;
+
+    @BeforeEach
+    void seedUsers() {
+        seedUser(EMAIL);
+        seedUser(OTHER_EMAIL);
+    }
+
+    private void seedUser(String email) {
+        if (userRepository.findByEmail(email).isEmpty()) {
+            User user = new User();
+            user.setFirstName("Order");
+            user.setLastName("History");
+            user.setEmail(email);
+            user.setPassword("x");
+            user.setRole("USER");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void historyPagesSummariesNewestFirst() throws Exception {
+        Long productId = product();
+        long[] orderIds = new long[3];
+        for (int i = 0; i < 3; i++) {
+            orderIds[i] = placeOrder(EMAIL, productId, i + 1);
+        }
+        outboxDispatcher.dispatchPending(); // so no follow-up work of the orders is counted below
+
+        SqlStatementCounter.reset();
+        String firstPage = mockMvc.perform(get("/api/orders").param("after", "").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(orderIds[2]))
+                .andExpect(jsonPath("$.content[0].itemCount").value(3))
+                .andExpect(jsonPath("$.content[0].thumbnailUrl").value("https://img.example.com/history.png"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        // The user lookup and the summary query; no order lines or products are loaded.
+        assertEquals(2, SqlStatementCounter.count());
+
+        JsonNode page = objectMapper.readTree(firstPage);
+        mockMvc.perform(get("/api/orders").param("after", page.get("nextCursor").asText()).param("size", "2"))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(orderIds[0]))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/api/orders/" + orderIds[1]))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderItems[0].quantity").value(2))
+                .andExpect(jsonPath("$.orderItems[0].product.brandName").value(startsWith("History Brand")));
+        mockMvc.perform(get("/api/orders/" + orderIds[1]).with(user(OTHER_EMAIL)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "ADMIN")
+    void adminListingFiltersAndExportsOrders() throws Exception {
+        Long productId = product();
+        long delivered = placeOrder(OTHER_EMAIL, productId, 1);
+        placeOrder(OTHER_EMAIL, productId, 2);
+        mockMvc.perform(put("/api/orders/" + delivered + "/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DELIVERED\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/orders/" + delivered + "/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"shipped\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SHIPPED"));
+        mockMvc.perform(put("/api/orders/" + delivered + "/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DELIVERED\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/orders/" + delivered + "/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"LOST\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/orders/all").param("after", "").param("status", "DELIVERED").param("email", OTHER_EMAIL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(delivered))
+                .andExpect(jsonPath("$.content[0].userEmail").value(OTHER_EMAIL))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        mockMvc.perform(get("/api/orders/all").param("after", "").param("from", "2999-01-01T00:00:00"))
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        MvcResult started = mockMvc.perform(get("/api/orders/export").param("status", "DELIVERED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertEquals(1, lines.size());
+        JsonNode order = objectMapper.readTree(lines.get(0));
+        assertEquals(delivered, order.get("id").asLong());
+        assertEquals(productId, order.get("items").get(0).get("productId").asLong());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "ADMIN")
+    void bulkStatusUpdateAppliesAllowedTransitionsOnly() throws Exception {
+        seedUser(BULK_EMAIL);
+        Long productId = product();
+        long first = placeOrder(BULK_EMAIL, productId, 1);
+        long second = placeOrder(BULK_EMAIL, productId, 1);
+        long cancelled = placeOrder(BULK_EMAIL, productId, 1);
+        mockMvc.perform(put("/api/orders/" + cancelled + "/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CANCELLED\"}"))
+                .andExpect(status().isOk());
+        outboxDispatcher.dispatchPending(); // so no follow-up work of the orders is counted below
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"shipped\",\"orderIds\":[" + first + "," + second + "," + cancelled + ",-1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.failures.length()").value(2))
+                .andExpect(jsonPath("$.failures[0].orderId").value(cancelled))
+                .andExpect(jsonPath("$.failures[0].currentStatus").value("CANCELLED"))
+                .andExpect(jsonPath("$.failures[1].orderId").value(-1));
+        // The locking status read, the one UPDATE and its outbox event; no orders are loaded or mapped.
+        assertEquals(3, SqlStatementCounter.count());
+
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DELIVERED\",\"filter\":{\"email\":\"" + BULK_EMAIL + "\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        mockMvc.perform(get("/api/orders/all").param("after", "").param("status", "DELIVERED").param("email", BULK_EMAIL))
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PENDING\",\"orderIds\":[" + first + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = ADDRESS_EMAIL)
+    void addressBookDedupesNormalizedAddressesAndServesFromCache() throws Exception {
+        seedUser(ADDRESS_EMAIL);
+        Long productId = product();
+        placeOrder(ADDRESS_EMAIL, productId, 1, "12, MG Road , Pune");
+        placeOrder(ADDRESS_EMAIL, productId, 1, "12,  mg road, Pune.");
+        placeOrder(ADDRESS_EMAIL, productId, 1, "5 Park Street");
+        outboxDispatcher.dispatchPending();
+
+        mockMvc.perform(get("/api/orders/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("5 Park Street"))
+                .andExpect(jsonPath("$[1]").value("12,  mg road, Pune."));
+
+        placeOrder(ADDRESS_EMAIL, productId, 1, "12, MG ROAD, PUNE");
+        outboxDispatcher.dispatchPending();
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/orders/addresses"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("12, MG ROAD, PUNE"))
+                .andExpect(jsonPath("$[1]").value("5 Park Street"));
+        // Only the user lookup; the list comes from the cache the order updated.
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    private Long product() {
+        Category category = new Category();
+        category.setName("History Category " + System.nanoTime());
+        Brand brand = new Brand();
+        brand.setName("History Brand " + System.nanoTime());
+        Product product = new Product();
+        product.setName("History Product");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setImageUrl("https://img.example.com/history.png");
+        product.setStockQuantity(50);
+        product.setCategory(categoryRepository.save(category));
+        product.setBrand(brandRepository.save(brand));
+        return productRepository.save(product).getId();
+    }
+
+    private long placeOrder(String email, Long productId, int quantity) throws Exception {
+        return placeOrder(email, productId, quantity, "1 Test Street");
+    }
+
+    private long placeOrder(String email, Long productId, int quantity, String address) throws Exception {
+        String body = mockMvc.perform(post("/api/orders").with(user(email)).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shippingAddress\":\"" + address + "\",\"items\":[{\"productId\":" + productId +
+                                ",\"quantity\":" + quantity + "}]}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -0,0 +1,192 @@
+package com.sky.Nykaa.feature_order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.Nykaa.feature_product.Brand;
+import com.sky.Nykaa.feature_product.BrandRepository;
+import com.sky.Nykaa.feature_product.Category;
+import com.sky.Nykaa.feature_product.CategoryRepository;
+import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_product.StockLedger;
+import com.sky.Nykaa.feature_user.User;
+import com.sky.Nykaa.feature_user.UserRepository;
+import com.sky.Nykaa.support.QueryCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own context (and so its own H2 database): the rows it seeds would skew the catalog count tests.
+@QueryCountTest
+@DirtiesContext
+@WithMockUser(username = OrderStockTest.EMAIL)
+class OrderStockTest {
+
+    static final String EMAIL = "order-stock@example.com";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+    @Autowired private StockLedger stockLedger;
+
+    @BeforeEach
+    void seedUser() {
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            User user = new User();
+            user.setFirstName("Order");
+            user.setLastName("Stock");
+            user.setEmail(EMAIL);
+            user.setPassword("x");
+            user.setRole("USER");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void orderTakesStockForEveryLineOrNone() throws Exception {
+        Long lipstick = product(5);
+        Long serum = product(1);
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(order(lipstick, 2, serum, 2)))
+                .andExpect(status().isInternalServerError());
+        assertEquals(5, stock(lipstick));
+        assertEquals(1, stock(serum));
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content(order(lipstick, 2, serum, 1)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderItems.length()").value(2));
+        assertEquals(3, stock(lipstick));
+        assertEquals(0, stock(serum));
+    }
+
+    @Test
+    void orderConfirmsTheStockHeldForItsPayment() throws Exception {
+        Long palette = product(2);
+        StockLedger.Hold hold = stockLedger.hold(EMAIL, Map.of(palette, 2));
+        stockLedger.attach(hold, "order_test_hold");
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shippingAddress\":\"1 Test Street\",\"items\":[{\"productId\":" + palette + ",\"quantity\":1}]}"))
+                .andExpect(status().isInternalServerError());
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shippingAddress\":\"1 Test Street\",\"razorpayOrderId\":\"order_test_hold\"," +
+                                "\"items\":[{\"productId\":" + palette + ",\"quantity\":2}]}"))
+                .andExpect(status().isCreated());
+        assertEquals(0, stock(palette));
+        assertEquals(0, stockLedger.available(palette));
+    }
+
+    @Test
+    void asyncOrdersAreQueuedAndPlacedInBatches() throws Exception {
+        Long mascara = product(3);
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String location = mockMvc.perform(post("/api/orders").header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"shippingAddress\":\"1 Test Street\",\"items\":[{\"productId\":" + mascara + ",\"quantity\":1}]}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("QUEUED"))
+                    .andReturn().getResponse().getHeader("Location");
+            tickets.add(location);
+        }
+
+        List<String> outcomes = new ArrayList<>();
+        for (String ticket : tickets) {
+            MvcResult started = mockMvc.perform(get(ticket).param("waitSeconds", "10"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            outcomes.add(objectMapper.readTree(body).get("status").asText());
+        }
+        assertEquals(List.of("PLACED", "PLACED", "PLACED", "REJECTED"), outcomes);
+        assertEquals(0, stock(mascara));
+    }
+
+    @Test
+    void retriesWithTheSameIdempotencyKeyPlaceOneOrder() throws Exception {
+        Long blush = product(5);
+        String order = "{\"shippingAddress\":\"1 Test Street\",\"items\":[{\"productId\":" + blush + ",\"quantity\":2}]}";
+
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(clients.submit(() -> mockMvc.perform(post("/api/orders").with(user(EMAIL))
+                            .header("Idempotency-Key", "checkout-42")
+                            .contentType(MediaType.APPLICATION_JSON).content(order))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString()));
+        }
+        Set<Long> orderIds = new HashSet<>();
+        for (Future<String> response : responses) {
+            orderIds.add(objectMapper.readTree(response.get()).get("id").asLong());
+        }
+        clients.shutdown();
+        assertEquals(1, orderIds.size());
+        assertEquals(3, stock(blush));
+
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", "checkout-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(order))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        mockMvc.perform(post("/api/orders").header("Idempotency-Key", "checkout-42")
+                        .contentType(MediaType.APPLICATION_JSON).content(order.replace("\"quantity\":2", "\"quantity\":1")))
+                .andExpect(status().isBadRequest());
+        assertEquals(3, stock(blush));
+    }
+
+    private Long product(int stock) {
+        Category category = new Category();
+        category.setName("Order Category " + System.nanoTime());
+        Brand brand = new Brand();
+        brand.setName("Order Brand " + System.nanoTime());
+        Product product = new Product();
+        product.setName("Order Product");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(stock);
+        product.setCategory(categoryRepository.save(category));
+        product.setBrand(brandRepository.save(brand));
+        return productRepository.save(product).getId();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+
+    private static String order(Long first, int firstQuantity, Long second, int secondQuantity) {
+        return "{\"shippingAddress\":\"1 Test Street\",\"items\":[" +
+                "{\"productId\":" + first + ",\"quantity\":" + firstQuantity + "}," +
+                "{\"productId\":" + second + ",\"quantity\":" + secondQuantity + "}]}";
+    }
+}
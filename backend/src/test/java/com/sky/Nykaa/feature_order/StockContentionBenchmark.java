@@ -0,0 +1,109 @@
+package com.sky.Nykaa.feature_order;
+
+import com.sky.Nykaa.feature_product.Product;
+import com.sky.Nykaa.feature_product.ProductRepository;
+import com.sky.Nykaa.feature_product.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+// Many buyers racing for the last units of one SKU, two ways:
+//   legacy      - the old path: findById, check stock in Java, set the new level, save
+//   conditional - StockRepository: UPDATE ... SET stock_quantity = stock_quantity - ? WHERE ... AND stock_quantity >= ?
+// Prints elapsed time, units sold and how many of them were oversold.
+// Needs PostgreSQL. Run with: mvn test -Dtest=StockContentionBenchmark -Dbenchmark=true
+// The seeded catalog rows are deleted afterwards.
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockContentionBenchmark {
+
+    private static final int BUYERS = 32;
+    private static final int ATTEMPTS_PER_BUYER = 50;
+    private static final int STOCK = 500;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private StockRepository stockRepository;
+
+    private long productId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('bench-stock-category')");
+        jdbcTemplate.update("INSERT INTO brands (name) VALUES ('bench-stock-brand')");
+        jdbcTemplate.update("INSERT INTO products (name, price, stock_quantity, category_id, brand_id, created_at) " +
+                "SELECT 'bench-stock-product', 100, 0, c.id, b.id, ? FROM categories c, brands b " +
+                "WHERE c.name = 'bench-stock-category' AND b.name = 'bench-stock-brand'", Timestamp.valueOf(LocalDateTime.now()));
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE name = 'bench-stock-product'", Long.class);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM categories WHERE name = 'bench-stock-category'");
+        jdbcTemplate.update("DELETE FROM brands WHERE name = 'bench-stock-brand'");
+    }
+
+    @Test
+    void parallelBuyersOfOneSku() throws Exception {
+        run("legacy", () -> Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (product.getStockQuantity() < 1) {
+                return false;
+            }
+            product.setStockQuantity(product.getStockQuantity() - 1);
+            productRepository.save(product);
+            return true;
+        })));
+
+        run("conditional", () -> Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                stockRepository.decrement(Map.of(productId, 1)).isEmpty())));
+    }
+
+    private void run(String name, BooleanSupplier buy) throws Exception {
+        jdbcTemplate.update("UPDATE products SET stock_quantity = ? WHERE id = ?", STOCK, productId);
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        AtomicInteger sold = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int b = 0; b < BUYERS; b++) {
+            buyers.add(pool.submit(() -> {
+                for (int i = 0; i < ATTEMPTS_PER_BUYER; i++) {
+                    try {
+                        if (buy.getAsBoolean()) {
+                            sold.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        // a failed purchase sells nothing
+                    }
+                }
+            }));
+        }
+        for (Future<?> buyer : buyers) {
+            buyer.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        pool.shutdown();
+
+        Integer left = jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+        System.out.printf("%-11s %6d ms  sold: %4d  stock left: %4d  oversold: %4d%n",
+                name, elapsedMs, sold.get(), left, Math.max(0, sold.get() - STOCK));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sky.Nykaa.feature_product;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void splitsPlainFieldsAndKeepsEmptyOnes() throws IOException {
+        CsvRecordReader reader = reader("a,b,,d\n");
+        assertEquals(List.of("a", "b", "", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasDoubledQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = reader("\"Lip, Matte\",\"The \"\"red\"\" one\",\"two\nlines\"\nnext,row\n");
+        assertEquals(List.of("Lip, Matte", "The \"red\" one", "two\nlines"), reader.next());
+        assertEquals(List.of("next", "row"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void acceptsCrlfSkipsBlankLinesAndReadsALastLineWithoutNewline() throws IOException {
+        CsvRecordReader reader = reader("a,b\r\n\r\n\nc,d");
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertNull(reader("").next());
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+}
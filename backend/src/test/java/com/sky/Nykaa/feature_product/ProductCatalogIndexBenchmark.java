@@ -0,0 +1,97 @@
+package com.sky.Nykaa.feature_product;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compares the in-memory catalog index with the JPQL filter query on a 100k product catalog.
+// Run with: mvn test -Dtest=ProductCatalogIndexBenchmark -Dbenchmark=true
+// The seeded rows live inside the test transaction and are rolled back afterwards.
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductCatalogIndexBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int QUERIES = 200;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ProductRepository productRepository;
+
+    @Test
+    void indexVersusJpql() {
+        List<String> categories = seed("categories", 20);
+        List<String> brands = seed("brands", 200);
+        List<Long> categoryIds = idsOf("categories");
+        List<Long> brandIds = idsOf("brands");
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[]{"bench-product-" + i, BigDecimal.valueOf(100 + random.nextInt(5000)), 10,
+                    categoryIds.get(random.nextInt(categoryIds.size())), brandIds.get(random.nextInt(brandIds.size())), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, price, stock_quantity, category_id, brand_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        ProductCatalogIndex index = new ProductCatalogIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(productRepository.findAllCatalogEntries());
+        System.out.printf("index build: %d ms%n", (System.nanoTime() - buildStart) / 1_000_000);
+
+        long jpqlNanos = 0;
+        long indexNanos = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            List<String> categoryFilter = List.of(categories.get(random.nextInt(categories.size())));
+            List<String> brandFilter = q % 2 == 0 ? null
+                    : List.of(brands.get(random.nextInt(brands.size())), brands.get(random.nextInt(brands.size())));
+            BigDecimal min = BigDecimal.valueOf(500);
+            BigDecimal max = BigDecimal.valueOf(2000 + random.nextInt(2000));
+            int page = random.nextInt(5);
+
+            long start = System.nanoTime();
+            Page<Product> jpql = productRepository.findByFilters(categoryFilter, brandFilter, min, max,
+                    PageRequest.of(page, 12, Sort.by("id")));
+            jpqlNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ProductCatalogIndex.Hits hits = index.query(categoryFilter, brandFilter, min, max, ProductSort.ID, page * 12L, 12);
+            indexNanos += System.nanoTime() - start;
+
+            assertEquals(jpql.getTotalElements(), hits.getTotal());
+            assertEquals(jpql.map(Product::getId).getContent(), hits.getIds());
+        }
+        System.out.printf("JPQL:  %.3f ms/query%n", jpqlNanos / 1e6 / QUERIES);
+        System.out.printf("index: %.3f ms/query%n", indexNanos / 1e6 / QUERIES);
+    }
+
+    private List<String> seed(String table, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "bench-" + table + "-" + i;
+            jdbcTemplate.update("INSERT INTO " + table + " (name) VALUES (?)", name);
+            names.add(name);
+        }
+        return names;
+    }
+
+    private List<Long> idsOf(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE name LIKE 'bench-%' ORDER BY id", Long.class);
+    }
+}
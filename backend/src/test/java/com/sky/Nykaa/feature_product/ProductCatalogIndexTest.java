@@ -0,0 +1,26 @@
+package com.sky.Nykaa.feature_product;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCatalogIndexTest {
+
+    @Test
+    void renamingOntoAnExistingNameKeepsBothSetsOfProducts() {
+        ProductCatalogIndex index = new ProductCatalogIndex();
+        index.rebuild(List.of(
+                new CatalogEntry(1L, BigDecimal.valueOf(100), "Lipsticks", "Brand A"),
+                new CatalogEntry(2L, BigDecimal.valueOf(200), "Lip Colour", "Brand A"),
+                new CatalogEntry(3L, BigDecimal.valueOf(300), "Eyes", "Brand B")));
+
+        index.renameCategory("Lipsticks", "Lip Colour");
+
+        ProductCatalogIndex.Hits hits = index.query(List.of("Lip Colour"), null, null, null, ProductSort.ID, 0, 10);
+        assertEquals(List.of(1L, 2L), hits.getIds());
+        assertEquals(0, index.query(List.of("Lipsticks"), null, null, null, ProductSort.ID, 0, 10).getTotal());
+    }
+}
@@ -0,0 +1,100 @@
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.feature_product.dto.ImportResultDto;
+import com.sky.Nykaa.support.QueryCountTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Only rejected rows: COPY is PostgreSQL-only, so nothing here may reach it.
+// May share a context with other tests, so it only compares product counts before and after.
+// Its own context is dropped afterwards: the rows it seeds would skew the catalog count tests.
+@QueryCountTest
+@DirtiesContext
+class ProductImportServiceTest {
+
+    @Autowired private ProductImportService importService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+
+    @BeforeEach
+    void seed() {
+        if (categoryRepository.findAll().stream().noneMatch(c -> c.getName().equals("Makeup"))) {
+            Category category = new Category();
+            category.setName("Makeup");
+            categoryRepository.save(category);
+            Brand brand = new Brand();
+            brand.setName("Maybelline");
+            brandRepository.save(brand);
+        }
+    }
+
+    @Test
+    void invalidCsvRowsAreReportedByRowNumberAndNotImported() {
+        long productsBefore = productRepository.count();
+        String csv = """
+                name,description,price,imageUrl,stockQuantity,category,brand
+                ,no name,100,,5,Makeup,Maybelline
+                Lipstick,,abc,,5,Makeup,Maybelline
+                Lipstick,,0,,5,Makeup,Maybelline
+                Lipstick,,100,,-1,Makeup,Maybelline
+                Lipstick,,100,,5,Skincare,Maybelline
+                Lipstick,,100,,5,makeup,Lakme
+                Lipstick,too,few
+                %s,,100,,5,Makeup,Maybelline
+                Lipstick,,100,http://img/%s,5,Makeup,Maybelline
+                """.formatted("n".repeat(256), "i".repeat(250));
+
+        ImportResultDto result = importService.importProducts(stream(csv), ProductImportService.CSV);
+
+        assertEquals(9, result.getRowsRead());
+        assertEquals(0, result.getRowsImported());
+        assertEquals(9, result.getErrorCount());
+        assertEquals(List.of(
+                new ImportResultDto.RowError(1, "name is required"),
+                new ImportResultDto.RowError(2, "price is not a number"),
+                new ImportResultDto.RowError(3, "price must be positive"),
+                new ImportResultDto.RowError(4, "stockQuantity must not be negative"),
+                new ImportResultDto.RowError(5, "unknown category: Skincare"),
+                new ImportResultDto.RowError(6, "unknown brand: Lakme"),
+                new ImportResultDto.RowError(7, "expected 7 fields but found 3"),
+                new ImportResultDto.RowError(8, "name is longer than 255 characters"),
+                new ImportResultDto.RowError(9, "imageUrl is longer than 255 characters")), result.getErrors());
+        assertEquals(productsBefore, productRepository.count());
+    }
+
+    @Test
+    void invalidNdjsonLinesAreReportedAndNotImported() {
+        long productsBefore = productRepository.count();
+        String ndjson = """
+                {"name":"Kajal","price":"99","stockQuantity":"x","category":"Makeup","brand":"Maybelline"}
+                not json
+
+                ["an","array"]
+                {"name":null,"price":99,"stockQuantity":1,"category":"Makeup","brand":"Maybelline"}
+                """;
+
+        ImportResultDto result = importService.importProducts(stream(ndjson), ProductImportService.NDJSON);
+
+        assertEquals(4, result.getRowsRead());
+        assertEquals(0, result.getRowsImported());
+        assertEquals(List.of(
+                new ImportResultDto.RowError(1, "stockQuantity is not a whole number"),
+                new ImportResultDto.RowError(2, "invalid JSON"),
+                new ImportResultDto.RowError(3, "expected a JSON object"),
+                new ImportResultDto.RowError(4, "name is required")), result.getErrors());
+        assertEquals(productsBefore, productRepository.count());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
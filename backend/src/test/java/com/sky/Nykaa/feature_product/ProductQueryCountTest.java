@@ -0,0 +1,183 @@
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.support.QueryCountTest;
+import com.sky.Nykaa.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards the product read endpoints against N+1 regressions on the LAZY category/brand.
+@QueryCountTest
+class ProductQueryCountTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+    @Autowired private ProductCatalogIndex catalogIndex;
+    @Autowired private ProductSearchIndex searchIndex;
+    @Autowired private CatalogVersion catalogVersion;
+
+    private Long anyProductId;
+
+    @BeforeEach
+    void seed() {
+        if (productRepository.count() == 0) {
+            for (int c = 0; c < 3; c++) {
+                Category category = new Category();
+                category.setName("Category " + c);
+                category = categoryRepository.save(category);
+                Brand brand = new Brand();
+                brand.setName("Brand " + c);
+                brand = brandRepository.save(brand);
+                for (int i = 0; i < 10; i++) {
+                    Product product = new Product();
+                    product.setName("Matte Lipstick " + c + "-" + i);
+                    product.setDescription("Long lasting colour");
+                    product.setPrice(BigDecimal.valueOf(100 + 50L * i));
+                    product.setStockQuantity(10);
+                    product.setCategory(category);
+                    product.setBrand(brand);
+                    productRepository.save(product);
+                }
+            }
+            catalogIndex.load();
+            searchIndex.load();
+        }
+        anyProductId = productRepository.findAll().get(0).getId();
+        // Responses cached by earlier tests would answer without a statement; start every test uncached.
+        catalogVersion.bump();
+    }
+
+    @Test
+    void listingPageIsOneStatement() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products").param("page", "0").param("size", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(12));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void cursorPageIsOneStatement() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products").param("after", "").param("size", "12").param("sort", "price_desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(12));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void cursorPageSizeIsClamped() throws Exception {
+        mockMvc.perform(get("/api/products").param("after", "").param("size", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        mockMvc.perform(get("/api/products").param("after", "").param("size", "-5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void searchPageIsOneStatement() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/search").param("q", "lipstick").param("size", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(12))
+                .andExpect(jsonPath("$.totalElements").value(30));
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void filteredSearchCountsEveryMatchButRanksOnlyUpToThePage() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("q", "lipstick").param("brands", "Brand 1")
+                        .param("maxPrice", "400").param("page", "1").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(7))
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].brandName").value("Brand 1"));
+    }
+
+    @Test
+    void repeatedCatalogReadsSkipTheDatabase() throws Exception {
+        String etag = mockMvc.perform(get("/api/products").param("size", "5").param("sort", "price_asc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products").param("sort", "price_asc").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5));
+        mockMvc.perform(get("/api/products").param("size", "5").param("sort", "price_asc").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, SqlStatementCounter.count());
+    }
+
+    @Test
+    void oversizedPagesAreClampedAndShareOneCacheEntry() throws Exception {
+        mockMvc.perform(get("/api/products").param("size", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+        assertEquals(0, SqlStatementCounter.count());
+    }
+
+    @Test
+    void etagFromOneRequestDoesNotValidateAnother() throws Exception {
+        String etag = mockMvc.perform(get("/api/products").param("size", "3").param("sort", "price_asc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products").param("size", "3").param("sort", "price_desc").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3));
+    }
+
+    @Test
+    void taxonomyListIsOneStatementWithoutProducts() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].productCount").value(10))
+                .andExpect(jsonPath("$[0].products").doesNotExist());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void detailIsOneStatement() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/" + anyProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.brandName").exists());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportStreamsEveryProductAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(productRepository.count(), body.lines().count());
+    }
+}
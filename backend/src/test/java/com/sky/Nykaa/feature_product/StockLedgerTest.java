@@ -0,0 +1,126 @@
+package com.sky.Nykaa.feature_product;
+
+import com.sky.Nykaa.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Own context (and so its own H2 database): the rows it seeds would skew the catalog count tests.
+@QueryCountTest
+@DirtiesContext
+class StockLedgerTest {
+
+    @Autowired private StockLedger stockLedger;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private BrandRepository brandRepository;
+
+    @Test
+    void holdsBlockOtherCheckoutsUntilReleasedOrExpired() {
+        Long productId = product(3);
+
+        StockLedger.Hold first = stockLedger.hold("a@example.com", Map.of(productId, 2));
+        assertEquals(1, stockLedger.available(productId));
+        assertThrows(IllegalStateException.class, () -> stockLedger.hold("b@example.com", Map.of(productId, 2)));
+
+        stockLedger.release(first);
+        StockLedger.Hold second = stockLedger.hold("b@example.com", Map.of(productId, 2));
+        assertEquals(1, stockLedger.available(productId));
+
+        stockLedger.releaseExpired(second.getExpiresAt());
+        assertEquals(3, stockLedger.available(productId));
+        // Holds never write; only a confirmed order changes the stored stock.
+        assertEquals(3, stock(productId));
+    }
+
+    @Test
+    void claimUsesTheHoldForItsReferenceAndSettlesNetStock() {
+        Long productId = product(4);
+        StockLedger.Hold hold = stockLedger.hold("a@example.com", Map.of(productId, 3));
+        stockLedger.attach(hold, "order_ref_1");
+
+        // Another user's reference does not unlock the hold.
+        assertThrows(IllegalStateException.class,
+                () -> stockLedger.claim("order_ref_1", "b@example.com", Map.of(productId, 2)));
+
+        StockLedger.Hold claimed = stockLedger.claim("order_ref_1", "a@example.com", Map.of(productId, 2));
+        assertEquals(hold.getId(), claimed.getId());
+        stockLedger.releaseExpired(Long.MAX_VALUE); // claimed holds are not expired mid-order
+
+        stockLedger.settle(claimed, false);
+        assertEquals(1, stockLedger.available(productId));
+
+        claimed = stockLedger.claim("order_ref_1", "a@example.com", Map.of(productId, 2));
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity - 2 WHERE id = ?", productId);
+        stockLedger.settle(claimed, true);
+        // The unordered third unit goes back on sale.
+        assertEquals(2, stockLedger.available(productId));
+        assertEquals(2, stock(productId));
+    }
+
+    @Test
+    void claimingTheSameReferenceTwiceLeavesTheFirstClaimAlone() {
+        Long productId = product(5);
+        StockLedger.Hold hold = stockLedger.hold("a@example.com", Map.of(productId, 2));
+        stockLedger.attach(hold, "order_ref_2");
+
+        StockLedger.Hold first = stockLedger.claim("order_ref_2", "a@example.com", Map.of(productId, 2));
+        // A double submit: the first order still owns the hold, so the second holds stock of its own.
+        StockLedger.Hold second = stockLedger.claim("order_ref_2", "a@example.com", Map.of(productId, 2));
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(1, stockLedger.available(productId));
+
+        // Neither a new checkout nor the sweeper takes the claimed hold away.
+        stockLedger.hold("a@example.com", Map.of(productId, 1));
+        assertEquals(0, stockLedger.available(productId));
+        stockLedger.releaseExpired(Long.MAX_VALUE);
+        assertEquals(1, stockLedger.available(productId));
+
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity - 2 WHERE id = ?", productId);
+        stockLedger.settle(first, true);
+        stockLedger.settle(first, true);
+        stockLedger.settle(second, false);
+        stockLedger.settle(second, false);
+        assertEquals(3, stockLedger.available(productId));
+        assertEquals(3, stock(productId));
+    }
+
+    @Test
+    void forgetRereadsStockChangedOutsideTheLedger() {
+        Long productId = product(1);
+        stockLedger.release(stockLedger.hold("a@example.com", Map.of(productId, 1)));
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 5 WHERE id = ?", productId);
+        assertEquals(1, stockLedger.available(productId));
+
+        stockLedger.forget(productId);
+        stockLedger.hold("a@example.com", Map.of(productId, 4));
+        assertEquals(1, stockLedger.available(productId));
+    }
+
+    private Long product(int stock) {
+        Category category = new Category();
+        category.setName("Ledger Category " + System.nanoTime());
+        Brand brand = new Brand();
+        brand.setName("Ledger Brand " + System.nanoTime());
+        Product product = new Product();
+        product.setName("Ledger Product");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(stock);
+        product.setCategory(categoryRepository.save(category));
+        product.setBrand(brandRepository.save(brand));
+        return productRepository.save(product).getId();
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+}
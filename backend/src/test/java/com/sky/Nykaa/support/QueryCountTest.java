@@ -0,0 +1,27 @@
+package com.sky.Nykaa.support;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Boots the full application against an embedded H2 database with SqlStatementCounter
+// installed, so tests can assert how many SQL statements an endpoint issues.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sky.Nykaa.support.SqlStatementCounter",
+        "spring.jpa.show-sql=false",
+        "razorpay.key.id=test",
+        "razorpay.key.secret=test",
+        "jwt.secret=5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public @interface QueryCountTest {
+}
@@ -3,7 +3,9 @@ import { api } from '../../api';
 import Pagination from '../ui/Pagination';
 
 const AdminOrders = () => {
-    const [orders, setOrders] = useState([]);
+    // Pages of the cursor listing loaded so far (newest orders first), and the cursor of the next one.
+    const [pages, setPages] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
     const [currentPage, setCurrentPage] = useState(0);
@@ -11,29 +13,37 @@ const AdminOrders = () => {
 
     const orderStatuses = ['PENDING', 'PROCESSING', 'SHIPPED', 'DELIVERED', 'CANCELLED'];
 
-    useEffect(() => {
-        const fetchOrders = async () => {
-            try {
-                setLoading(true);
-                const data = await api.get('/orders/all');
-                const sortedOrders = data.sort((a, b) => new Date(b.orderDate) - new Date(a.orderDate));
-                setOrders(sortedOrders);
-                setError(null);
-            } catch (err) {
-                setError(err.message);
-                console.error("Failed to fetch orders:", err);
-            } finally {
-                setLoading(false);
-            }
-        };
+    const fetchPage = async (after) => {
+        try {
+            setLoading(true);
+            const data = await api.get(`/orders/all?after=${encodeURIComponent(after)}&size=${ordersPerPage}`);
+            setPages(loaded => [...loaded, data.content]);
+            setNextCursor(data.hasNext ? data.nextCursor : null);
+            setError(null);
+        } catch (err) {
+            setError(err.message);
+            console.error("Failed to fetch orders:", err);
+        } finally {
+            setLoading(false);
+        }
+    };
 
-        fetchOrders();
+    useEffect(() => {
+        fetchPage('');
     }, []);
 
+    const handlePageChange = (page) => {
+        if (page === pages.length && nextCursor) {
+            fetchPage(nextCursor);
+        }
+        setCurrentPage(page);
+    };
+
     const handleStatusChange = async (orderId, newStatus) => {
         try {
             const updatedOrder = await api.put(`/orders/${orderId}/status`, { status: newStatus });
-            setOrders(orders.map(order => order.id === orderId ? updatedOrder : order));
+            setPages(pages.map(page => page.map(order =>
+                order.id === orderId ? { ...order, status: updatedOrder.status } : order)));
         } catch (err) {
             console.error("Failed to update order status:", err);
         }
@@ -56,10 +66,9 @@ const AdminOrders = () => {
         }
     };
 
-    const indexOfFirstOrder = currentPage * ordersPerPage;
-    const indexOfLastOrder = indexOfFirstOrder + ordersPerPage;
-    const currentOrders = orders.slice(indexOfFirstOrder, indexOfLastOrder);
-    const totalPages = Math.ceil(orders.length / ordersPerPage);
+    const currentOrders = pages[currentPage] || [];
+    // No total is computed; one more page is offered while the server reports there is one.
+    const totalPages = pages.length + (nextCursor ? 1 : 0);
 
     if (loading) {
         return (
@@ -102,7 +111,7 @@ const AdminOrders = () => {
                             currentOrders.map((order, index) => (
                                 <tr key={order.id} className={`hover:bg-pink-50 ${index % 2 === 0 ? 'bg-gray-50' : 'bg-white'}`}>
                                     <td className="py-3 px-4 font-medium">#{order.id}</td>
-                                    <td className="py-3 px-4">{`${order.user.firstName} ${order.user.lastName}`}</td>
+                                    <td className="py-3 px-4">{`${order.userFirstName} ${order.userLastName}`}</td>
                                     <td className="py-3 px-4">{new Date(order.orderDate).toLocaleDateString()}</td>
                                     <td className="py-3 px-4">₹{order.totalAmount.toFixed(2)}</td>
                                     <td className="py-3 px-4 text-center">
@@ -139,7 +148,7 @@ const AdminOrders = () => {
                         <div className="flex justify-between items-start mb-2">
                             <div>
                                 <p className="font-bold text-lg text-pink-700">Order #{order.id}</p>
-                                <p className="text-sm text-gray-600">{`${order.user.firstName} ${order.user.lastName}`}</p>
+                                <p className="text-sm text-gray-600">{`${order.userFirstName} ${order.userLastName}`}</p>
                             </div>
                             <span className={`px-3 py-1 rounded-full text-xs font-semibold ${getStatusClasses(order.status)}`}>
                                 {order.status}
@@ -166,7 +175,7 @@ const AdminOrders = () => {
             <Pagination
                 currentPage={currentPage}
                 totalPages={totalPages}
-                onPageChange={setCurrentPage}
+                onPageChange={handlePageChange}
             />
         </div>
     );